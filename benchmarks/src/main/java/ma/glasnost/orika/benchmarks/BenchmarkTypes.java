@@ -0,0 +1,524 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The domain and DTO types mapped by the benchmarks, along with fixtures to
+ * populate them and a hand-written mapping used as the baseline.
+ *
+ */
+public interface BenchmarkTypes {
+
+    class Address {
+        private String street;
+        private String city;
+        private String zipCode;
+
+        public String getStreet() {
+            return street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+
+        public String getZipCode() {
+            return zipCode;
+        }
+
+        public void setZipCode(String zipCode) {
+            this.zipCode = zipCode;
+        }
+    }
+
+    class AddressDTO {
+        private String street;
+        private String city;
+        private String zipCode;
+
+        public String getStreet() {
+            return street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+
+        public String getZipCode() {
+            return zipCode;
+        }
+
+        public void setZipCode(String zipCode) {
+            this.zipCode = zipCode;
+        }
+    }
+
+    class Customer {
+        private long id;
+        private String firstName;
+        private String lastName;
+        private int age;
+        private boolean active;
+        private Address address;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public void setLastName(String lastName) {
+            this.lastName = lastName;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+    }
+
+    class CustomerDTO {
+        private long id;
+        private String firstName;
+        private String lastName;
+        private int age;
+        private boolean active;
+        private AddressDTO address;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public void setLastName(String lastName) {
+            this.lastName = lastName;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public AddressDTO getAddress() {
+            return address;
+        }
+
+        public void setAddress(AddressDTO address) {
+            this.address = address;
+        }
+    }
+
+    class Product {
+        private String sku;
+        private String name;
+        private double price;
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+    }
+
+    class ProductDTO {
+        private String sku;
+        private String name;
+        private double price;
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+    }
+
+    class OrderLine {
+        private Product product;
+        private int quantity;
+
+        public Product getProduct() {
+            return product;
+        }
+
+        public void setProduct(Product product) {
+            this.product = product;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    class OrderLineDTO {
+        private ProductDTO product;
+        private int quantity;
+
+        public ProductDTO getProduct() {
+            return product;
+        }
+
+        public void setProduct(ProductDTO product) {
+            this.product = product;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    class Order {
+        private long id;
+        private Customer customer;
+        private Address shippingAddress;
+        private List<OrderLine> lines;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(Customer customer) {
+            this.customer = customer;
+        }
+
+        public Address getShippingAddress() {
+            return shippingAddress;
+        }
+
+        public void setShippingAddress(Address shippingAddress) {
+            this.shippingAddress = shippingAddress;
+        }
+
+        public List<OrderLine> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<OrderLine> lines) {
+            this.lines = lines;
+        }
+    }
+
+    class OrderDTO {
+        private long id;
+        private CustomerDTO customer;
+        private AddressDTO shippingAddress;
+        private List<OrderLineDTO> lines;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public CustomerDTO getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(CustomerDTO customer) {
+            this.customer = customer;
+        }
+
+        public AddressDTO getShippingAddress() {
+            return shippingAddress;
+        }
+
+        public void setShippingAddress(AddressDTO shippingAddress) {
+            this.shippingAddress = shippingAddress;
+        }
+
+        public List<OrderLineDTO> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<OrderLineDTO> lines) {
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Builds populated instances of the domain types.
+     */
+    final class Fixtures {
+
+        private Fixtures() {
+        }
+
+        public static Address newAddress(int seed) {
+            Address address = new Address();
+            address.setStreet(seed + " Main Street");
+            address.setCity("City " + (seed % 100));
+            address.setZipCode(String.valueOf(10000 + seed));
+            return address;
+        }
+
+        public static Customer newCustomer(int seed) {
+            Customer customer = new Customer();
+            customer.setId(seed);
+            customer.setFirstName("First" + seed);
+            customer.setLastName("Last" + seed);
+            customer.setAge(20 + seed % 50);
+            customer.setActive(seed % 2 == 0);
+            customer.setAddress(newAddress(seed));
+            return customer;
+        }
+
+        public static List<Customer> newCustomers(int size) {
+            List<Customer> customers = new ArrayList<Customer>(size);
+            for (int i = 0; i < size; ++i) {
+                customers.add(newCustomer(i));
+            }
+            return customers;
+        }
+
+        public static Order newOrder(int lineCount) {
+            Order order = new Order();
+            order.setId(lineCount);
+            order.setCustomer(newCustomer(lineCount));
+            order.setShippingAddress(newAddress(lineCount + 1));
+            List<OrderLine> lines = new ArrayList<OrderLine>(lineCount);
+            for (int i = 0; i < lineCount; ++i) {
+                Product product = new Product();
+                product.setSku("SKU-" + i);
+                product.setName("Product " + i);
+                product.setPrice(i * 1.25d);
+                OrderLine line = new OrderLine();
+                line.setProduct(product);
+                line.setQuantity(i % 7 + 1);
+                lines.add(line);
+            }
+            order.setLines(lines);
+            return order;
+        }
+    }
+
+    /**
+     * Hand-written equivalent of the generated mappers; this is the baseline
+     * against which the Orika results should be compared.
+     */
+    final class ManualMapping {
+
+        private ManualMapping() {
+        }
+
+        public static AddressDTO map(Address source) {
+            if (source == null) {
+                return null;
+            }
+            AddressDTO dest = new AddressDTO();
+            dest.setStreet(source.getStreet());
+            dest.setCity(source.getCity());
+            dest.setZipCode(source.getZipCode());
+            return dest;
+        }
+
+        public static CustomerDTO map(Customer source) {
+            if (source == null) {
+                return null;
+            }
+            CustomerDTO dest = new CustomerDTO();
+            dest.setId(source.getId());
+            dest.setFirstName(source.getFirstName());
+            dest.setLastName(source.getLastName());
+            dest.setAge(source.getAge());
+            dest.setActive(source.isActive());
+            dest.setAddress(map(source.getAddress()));
+            return dest;
+        }
+
+        public static List<CustomerDTO> mapAsList(List<Customer> source) {
+            List<CustomerDTO> dest = new ArrayList<CustomerDTO>(source.size());
+            for (Customer customer : source) {
+                dest.add(map(customer));
+            }
+            return dest;
+        }
+
+        public static CustomerDTO[] mapAsArray(List<Customer> source) {
+            CustomerDTO[] dest = new CustomerDTO[source.size()];
+            int i = 0;
+            for (Customer customer : source) {
+                dest[i++] = map(customer);
+            }
+            return dest;
+        }
+
+        public static ProductDTO map(Product source) {
+            if (source == null) {
+                return null;
+            }
+            ProductDTO dest = new ProductDTO();
+            dest.setSku(source.getSku());
+            dest.setName(source.getName());
+            dest.setPrice(source.getPrice());
+            return dest;
+        }
+
+        public static OrderDTO map(Order source) {
+            if (source == null) {
+                return null;
+            }
+            OrderDTO dest = new OrderDTO();
+            dest.setId(source.getId());
+            dest.setCustomer(map(source.getCustomer()));
+            dest.setShippingAddress(map(source.getShippingAddress()));
+            if (source.getLines() != null) {
+                List<OrderLineDTO> lines = new ArrayList<OrderLineDTO>(source.getLines().size());
+                for (OrderLine line : source.getLines()) {
+                    OrderLineDTO lineDto = new OrderLineDTO();
+                    lineDto.setProduct(map(line.getProduct()));
+                    lineDto.setQuantity(line.getQuantity());
+                    lines.add(lineDto);
+                }
+                dest.setLines(lines);
+            }
+            return dest;
+        }
+    }
+}
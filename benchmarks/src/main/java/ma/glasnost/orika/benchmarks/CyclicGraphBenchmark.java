@@ -0,0 +1,108 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Maps a large tree whose nodes refer back to their parent, so that every
+ * node has to be tracked in the MappingContext's identity cache.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CyclicGraphBenchmark {
+    
+    private static final int FAN_OUT = 10;
+    
+    @Param({ "1000", "100000" })
+    public int nodes;
+    
+    private Node root;
+    private BoundMapperFacade<Node, NodeDTO> boundMapper;
+    
+    @Setup
+    public void setup() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Node.class, NodeDTO.class).byDefault().register();
+        boundMapper = factory.getMapperFacade(Node.class, NodeDTO.class);
+        root = newTree(nodes);
+    }
+    
+    @Benchmark
+    public NodeDTO orikaBound() {
+        return boundMapper.map(root);
+    }
+    
+    /**
+     * Builds a tree of the given number of nodes, filled breadth-first so
+     * that its depth stays logarithmic.
+     */
+    static Node newTree(int size) {
+        List<Node> all = new ArrayList<Node>(size);
+        Node root = new Node();
+        all.add(root);
+        for (int i = 1; i < size; ++i) {
+            Node parent = all.get((i - 1) / FAN_OUT);
+            Node child = new Node();
+            child.id = i;
+            child.parent = parent;
+            if (parent.children == null) {
+                parent.children = new ArrayList<Node>(FAN_OUT);
+            }
+            parent.children.add(child);
+            all.add(child);
+        }
+        return root;
+    }
+    
+    public static class Node {
+        public int id;
+        public Node parent;
+        public List<Node> children;
+    }
+    
+    public static class NodeDTO {
+        public int id;
+        public NodeDTO parent;
+        public List<NodeDTO> children;
+    }
+}
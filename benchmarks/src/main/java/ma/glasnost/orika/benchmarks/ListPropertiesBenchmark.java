@@ -0,0 +1,101 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.Fixtures;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.ManualMapping;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.OrderDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.OrderLine;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.OrderLineDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.Product;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.ProductDTO;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Maps a batch of orders, each holding a list of (1000 by default) lines,
+ * through the collection properties of the generated mappers.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListPropertiesBenchmark {
+    
+    @Param({ "20" })
+    public int orders;
+    
+    @Param({ "1000" })
+    public int lines;
+    
+    private List<Order> source;
+    private BoundMapperFacade<Order, OrderDTO> mapper;
+    
+    @Setup
+    public void setup() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Order.class, OrderDTO.class).byDefault().register();
+        factory.classMap(OrderLine.class, OrderLineDTO.class).byDefault().register();
+        factory.classMap(Product.class, ProductDTO.class).byDefault().register();
+        mapper = factory.getMapperFacade(Order.class, OrderDTO.class);
+        source = new ArrayList<Order>(orders);
+        for (int i = 0; i < orders; ++i) {
+            source.add(Fixtures.newOrder(lines));
+        }
+    }
+    
+    @Benchmark
+    public List<OrderDTO> javaManual() {
+        List<OrderDTO> result = new ArrayList<OrderDTO>(source.size());
+        for (Order order : source) {
+            result.add(ManualMapping.map(order));
+        }
+        return result;
+    }
+    
+    @Benchmark
+    public List<OrderDTO> orika() {
+        List<OrderDTO> result = new ArrayList<OrderDTO>(source.size());
+        for (Order order : source) {
+            result.add(mapper.map(order));
+        }
+        return result;
+    }
+}
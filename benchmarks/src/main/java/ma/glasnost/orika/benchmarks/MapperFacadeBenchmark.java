@@ -0,0 +1,91 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.Customer;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.CustomerDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.Fixtures;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.ManualMapping;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Maps a single customer (with a nested address) through each of the
+ * available entry points: the MapperFacade, a BoundMapperFacade, and a
+ * BoundMapperFacade which does not guard against cycles.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperFacadeBenchmark {
+    
+    private Customer customer;
+    private MapperFacade mapperFacade;
+    private BoundMapperFacade<Customer, CustomerDTO> boundMapper;
+    private BoundMapperFacade<Customer, CustomerDTO> nonCyclicBoundMapper;
+    
+    @Setup
+    public void setup() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Customer.class, CustomerDTO.class).byDefault().register();
+        mapperFacade = factory.getMapperFacade();
+        boundMapper = factory.getMapperFacade(Customer.class, CustomerDTO.class);
+        nonCyclicBoundMapper = factory.getMapperFacade(Customer.class, CustomerDTO.class, false);
+        customer = Fixtures.newCustomer(42);
+    }
+    
+    @Benchmark
+    public CustomerDTO javaManual() {
+        return ManualMapping.map(customer);
+    }
+    
+    @Benchmark
+    public CustomerDTO orika() {
+        return mapperFacade.map(customer, CustomerDTO.class);
+    }
+    
+    @Benchmark
+    public CustomerDTO orikaBound() {
+        return boundMapper.map(customer);
+    }
+    
+    @Benchmark
+    public CustomerDTO orikaNoCycles() {
+        return nonCyclicBoundMapper.map(customer);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.GeneratedMapperBase;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up registered mappers in a factory holding a large number of them,
+ * as happens on every lookupMapper call and during strategy resolution.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperRegistryBenchmark {
+    
+    @Param({ "50", "5000" })
+    public int mappers;
+    
+    private SyntheticTypes types;
+    private MapperFactory factory;
+    private Type<?>[] sourceTypes;
+    private Type<?>[] destinationTypes;
+    private int next;
+    
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        types = new SyntheticTypes(mappers, Thread.currentThread().getContextClassLoader());
+        factory = new DefaultMapperFactory.Builder().build();
+        sourceTypes = new Type<?>[mappers];
+        destinationTypes = new Type<?>[mappers];
+        for (int i = 0; i < mappers; ++i) {
+            sourceTypes[i] = TypeFactory.valueOf(types.getSourceType(i));
+            destinationTypes[i] = TypeFactory.valueOf(types.getDestinationType(i));
+            GeneratedMapperBase mapper = new GeneratedMapperBase() {
+            };
+            mapper.setAType((Type<Object>) sourceTypes[i]);
+            mapper.setBType((Type<Object>) destinationTypes[i]);
+            factory.registerMapper(mapper);
+        }
+        factory.getMapperFacade();
+    }
+    
+    @TearDown
+    public void deleteTypes() {
+        types.delete();
+    }
+    
+    @Benchmark
+    public boolean lookupRegisteredMapper() {
+        int i = next++ % mappers;
+        return factory.existsRegisteredMapper(sourceTypes[i], destinationTypes[i], false);
+    }
+    
+    @Benchmark
+    public boolean lookupReversedMapper() {
+        int i = next++ % mappers;
+        return factory.existsRegisteredMapper(destinationTypes[i], sourceTypes[i], false);
+    }
+    
+    @Benchmark
+    public boolean lookupMissingMapper() {
+        int i = next++ % mappers;
+        return factory.existsRegisteredMapper(sourceTypes[i], sourceTypes[(i + 1) % mappers], false);
+    }
+}
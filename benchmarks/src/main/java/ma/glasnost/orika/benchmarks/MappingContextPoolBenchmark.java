@@ -0,0 +1,99 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingContextFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.Customer;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.CustomerDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.Fixtures;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.StripedMappingContextFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the shared-queue context pool of {@link MappingContext.Factory}
+ * with the {@link StripedMappingContextFactory} when many threads map
+ * concurrently; run with <code>-t</code> to change the number of threads.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class MappingContextPoolBenchmark {
+    
+    /**
+     * The context factories which can be benchmarked
+     */
+    public enum Pool {
+        QUEUE, STRIPED;
+        
+        MappingContextFactory newInstance() {
+            return this == STRIPED ? new StripedMappingContextFactory() : new MappingContext.Factory();
+        }
+    }
+    
+    @Param({ "QUEUE", "STRIPED" })
+    public Pool pool;
+    
+    private MappingContextFactory contextFactory;
+    private MapperFacade mapperFacade;
+    private Customer customer;
+    
+    @Setup
+    public void setup() {
+        contextFactory = pool.newInstance();
+        MapperFactory factory = new DefaultMapperFactory.Builder().mappingContextFactory(contextFactory).build();
+        factory.classMap(Customer.class, CustomerDTO.class).byDefault().register();
+        mapperFacade = factory.getMapperFacade();
+        customer = Fixtures.newCustomer(42);
+    }
+    
+    @Benchmark
+    public MappingContext acquireAndRelease() {
+        MappingContext context = contextFactory.getContext();
+        contextFactory.release(context);
+        return context;
+    }
+    
+    @Benchmark
+    public CustomerDTO map() {
+        return mapperFacade.map(customer, CustomerDTO.class);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.Fixtures;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.ManualMapping;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkTypes.OrderDTO;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Maps an order holding nested beans and a collection of order lines (each
+ * with its own nested product), relying on auto-generated mappers for every
+ * nested type; <code>analyzeCycles</code> toggles the cycle analysis of the
+ * DefaultMapperFactory.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectGraphBenchmark {
+    
+    @Param({ "1", "100" })
+    public int lines;
+    
+    @Param({ "false", "true" })
+    public boolean analyzeCycles;
+    
+    private Order order;
+    private MapperFacade mapperFacade;
+    private BoundMapperFacade<Order, OrderDTO> boundMapper;
+    private BoundMapperFacade<Order, OrderDTO> nonCyclicBoundMapper;
+    
+    @Setup
+    public void setup() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().analyzeCycles(analyzeCycles).build();
+        factory.classMap(Order.class, OrderDTO.class).byDefault().register();
+        mapperFacade = factory.getMapperFacade();
+        boundMapper = factory.getMapperFacade(Order.class, OrderDTO.class);
+        nonCyclicBoundMapper = factory.getMapperFacade(Order.class, OrderDTO.class, false);
+        order = Fixtures.newOrder(lines);
+    }
+    
+    @Benchmark
+    public OrderDTO javaManual() {
+        return ManualMapping.map(order);
+    }
+    
+    @Benchmark
+    public OrderDTO orika() {
+        return mapperFacade.map(order, OrderDTO.class);
+    }
+    
+    @Benchmark
+    public OrderDTO orikaBound() {
+        return boundMapper.map(order);
+    }
+    
+    @Benchmark
+    public OrderDTO orikaNoCycles() {
+        return nonCyclicBoundMapper.map(order);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.OrikaSystemProperties;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.CachingCompilerStrategy;
+import ma.glasnost.orika.impl.generator.CompilerStrategy;
+import ma.glasnost.orika.impl.generator.EclipseJdtCompilerStrategy;
+import ma.glasnost.orika.impl.generator.HiddenClassCompilerStrategy;
+import ma.glasnost.orika.impl.generator.JaninoCompilerStrategy;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cold-start cost of {@link DefaultMapperFactory#build()} for a
+ * factory with a given number of registered class maps, under each of the
+ * available compiler strategies, in each of the build modes.<br>
+ * <br>
+ * Besides the wall time of each build, the bytes allocated by all threads
+ * (including the workers of a parallel build), the growth of the metaspace
+ * and the heap still in use once the
+ * factory is built (after a full collection) are reported as the
+ * <code>allocatedBytes</code>, <code>metaspaceBytes</code> and
+ * <code>retainedHeapBytes</code> secondary results.
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-D" + OrikaSystemProperties.WRITE_SOURCE_FILES + "=false",
+        "-D" + OrikaSystemProperties.WRITE_CLASS_FILES + "=false" })
+public class StartupBenchmark {
+    
+    /**
+     * The compiler strategies which can be benchmarked; the class cache of
+     * CACHING is filled by the warm-up iterations
+     */
+    public enum Compiler {
+        JAVASSIST, JANINO, ECLIPSE_JDT, CACHING, HIDDEN;
+        
+        CompilerStrategy newInstance() {
+            switch (this) {
+            case JANINO:
+                return new JaninoCompilerStrategy();
+            case ECLIPSE_JDT:
+                return new EclipseJdtCompilerStrategy();
+            case CACHING:
+                return new CachingCompilerStrategy(new File(System.getProperty("java.io.tmpdir"), "orika-benchmark-class-cache"));
+            case HIDDEN:
+                return new HiddenClassCompilerStrategy();
+            default:
+                return new JavassistCompilerStrategy();
+            }
+        }
+    }
+    
+    /**
+     * The ways in which the factory can be built
+     */
+    public enum BuildMode {
+        SEQUENTIAL, PARALLEL, LAZY
+    }
+    
+    @Param({ "50", "500", "5000" })
+    public int classMaps;
+    
+    @Param({ "JAVASSIST", "JANINO", "ECLIPSE_JDT", "CACHING", "HIDDEN" })
+    public Compiler compiler;
+    
+    @Param({ "SEQUENTIAL", "PARALLEL", "LAZY" })
+    public BuildMode buildMode;
+    
+    private SyntheticTypes types;
+    private ClassLoader originalClassLoader;
+    private DefaultMapperFactory factory;
+    
+    /**
+     * Secondary results of each build
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+        
+        public long allocatedBytes;
+        public long metaspaceBytes;
+        public long retainedHeapBytes;
+        
+        private final Map<Long, Long> allocatedBefore = new HashMap<Long, Long>();
+        private long metaspaceBefore;
+        
+        @Setup(Level.Iteration)
+        public void clear() {
+            allocatedBytes = 0;
+            metaspaceBytes = 0;
+            retainedHeapBytes = 0;
+        }
+        
+        void start() {
+            metaspaceBefore = metaspaceUsed();
+            allocatedBefore.clear();
+            allocatedBefore.putAll(allocatedBytesByThread());
+        }
+        
+        /**
+         * Sums the bytes allocated by every live thread since
+         * {@link #start()}, so that the workers of a parallel build (the
+         * threads of the common fork-join pool, which outlive the build) are
+         * accounted for; the threads started during the build are counted
+         * from zero.
+         */
+        void stop() {
+            for (Map.Entry<Long, Long> allocated : allocatedBytesByThread().entrySet()) {
+                Long before = allocatedBefore.get(allocated.getKey());
+                allocatedBytes += allocated.getValue() - (before != null ? before : 0L);
+            }
+            metaspaceBytes += metaspaceUsed() - metaspaceBefore;
+        }
+        
+        /**
+         * Measures the heap retained by the built factory, outside of the
+         * timed build; the factory is only released on the next setup
+         */
+        @TearDown(Level.Invocation)
+        public void retained() {
+            System.gc();
+            retainedHeapBytes += ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+        
+        private static Map<Long, Long> allocatedBytesByThread() {
+            Map<Long, Long> allocated = new HashMap<Long, Long>();
+            if (THREADS instanceof com.sun.management.ThreadMXBean) {
+                long[] threadIds = THREADS.getAllThreadIds();
+                long[] bytes = ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(threadIds);
+                for (int i = 0; i < threadIds.length; ++i) {
+                    if (bytes[i] >= 0) {
+                        allocated.put(threadIds[i], bytes[i]);
+                    }
+                }
+            }
+            return allocated;
+        }
+        
+        private static long metaspaceUsed() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if ("Metaspace".equals(pool.getName())) {
+                    return pool.getUsage().getUsed();
+                }
+            }
+            return 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void generateTypes() {
+        originalClassLoader = Thread.currentThread().getContextClassLoader();
+        types = new SyntheticTypes(classMaps, originalClassLoader);
+    }
+    
+    @TearDown(Level.Trial)
+    public void deleteTypes() {
+        types.delete();
+    }
+    
+    @Setup(Level.Invocation)
+    public void registerClassMaps() {
+        factory = null;
+        Thread.currentThread().setContextClassLoader(types.getClassLoader());
+        factory = new DefaultMapperFactory.Builder().compilerStrategy(compiler.newInstance())
+                .parallelBuild(buildMode == BuildMode.PARALLEL)
+                .lazyBuild(buildMode == BuildMode.LAZY)
+                .build();
+        for (int i = 0; i < classMaps; ++i) {
+            factory.classMap(types.getSourceType(i), types.getDestinationType(i)).byDefault().register();
+        }
+    }
+    
+    @TearDown(Level.Invocation)
+    public void restoreClassLoader() {
+        Thread.currentThread().setContextClassLoader(originalClassLoader);
+    }
+    
+    @Benchmark
+    public DefaultMapperFactory build(Footprint footprint) {
+        footprint.start();
+        factory.build();
+        footprint.stop();
+        return factory;
+    }
+}
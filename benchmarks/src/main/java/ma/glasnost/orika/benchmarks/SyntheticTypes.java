@@ -0,0 +1,156 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewMethod;
+import javassist.NotFoundException;
+
+/**
+ * Generates pairs of simple bean classes ("synthetic.SourceN" and
+ * "synthetic.DestN") on disk, so that benchmarks may register an arbitrary
+ * number of distinct class maps. Every pair (except the first of each group of
+ * ten) holds a reference to the previous pair's type, so that generated mappers
+ * also exercise the lookup of nested mappers.
+ * 
+ */
+public class SyntheticTypes {
+    
+    private static final String PACKAGE = "synthetic";
+    private static final String[][] PROPERTIES = { { "long", "id" }, { "java.lang.String", "name" }, { "int", "count" },
+            { "java.lang.Double", "amount" }, { "boolean", "active" }, { "java.util.Date", "created" } };
+    
+    private final File directory;
+    private final ClassLoader classLoader;
+    private final List<Class<?>> sourceTypes;
+    private final List<Class<?>> destinationTypes;
+    
+    /**
+     * Generates the specified number of source/destination pairs.
+     * 
+     * @param pairs
+     *            the number of source/destination pairs to generate
+     * @param parent
+     *            the parent of the class-loader used to load the generated
+     *            types
+     */
+    public SyntheticTypes(int pairs, ClassLoader parent) {
+        this(pairs, PROPERTIES.length, parent);
+    }
+    
+    /**
+     * Generates the specified number of source/destination pairs, with the
+     * specified number of properties (besides the reference to the previous
+     * pair's type); properties beyond the six basic ones repeat their types,
+     * with numbered names.
+     * 
+     * @param pairs
+     *            the number of source/destination pairs to generate
+     * @param properties
+     *            the number of properties of each generated type
+     * @param parent
+     *            the parent of the class-loader used to load the generated
+     *            types
+     */
+    public SyntheticTypes(int pairs, int properties, ClassLoader parent) {
+        try {
+            this.directory = Files.createTempDirectory("orika-synthetic").toFile();
+            ClassPool pool = new ClassPool(true);
+            for (int i = 0; i < pairs; ++i) {
+                makeBean(pool, "Source", i, properties).writeFile(directory.getAbsolutePath());
+                makeBean(pool, "Dest", i, properties).writeFile(directory.getAbsolutePath());
+            }
+            this.classLoader = new URLClassLoader(new URL[] { directory.toURI().toURL() }, parent);
+            this.sourceTypes = new ArrayList<Class<?>>(pairs);
+            this.destinationTypes = new ArrayList<Class<?>>(pairs);
+            for (int i = 0; i < pairs; ++i) {
+                sourceTypes.add(classLoader.loadClass(PACKAGE + ".Source" + i));
+                destinationTypes.add(classLoader.loadClass(PACKAGE + ".Dest" + i));
+            }
+        } catch (IOException | CannotCompileException | NotFoundException | ClassNotFoundException e) {
+            throw new IllegalStateException("Could not generate synthetic types", e);
+        }
+    }
+    
+    private static CtClass makeBean(ClassPool pool, String prefix, int index, int properties) throws CannotCompileException,
+            NotFoundException {
+        CtClass bean = pool.makeClass(PACKAGE + "." + prefix + index);
+        for (int i = 0; i < properties; ++i) {
+            String[] property = PROPERTIES[i % PROPERTIES.length];
+            addProperty(bean, property[0], i < PROPERTIES.length ? property[1] : property[1] + (i / PROPERTIES.length));
+        }
+        if (index % 10 != 0) {
+            addProperty(bean, PACKAGE + "." + prefix + (index - 1), "child");
+        }
+        return bean;
+    }
+    
+    private static void addProperty(CtClass bean, String type, String name) throws CannotCompileException {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        String getter = ("boolean".equals(type) ? "is" : "get") + capitalized;
+        bean.addField(CtField.make("private " + type + " " + name + ";", bean));
+        bean.addMethod(CtNewMethod.make("public " + type + " " + getter + "() { return this." + name + "; }", bean));
+        bean.addMethod(CtNewMethod.make("public void set" + capitalized + "(" + type + " value) { this." + name + " = value; }", bean));
+    }
+    
+    /**
+     * @return the class-loader from which the generated types are loaded; it
+     *         should be set as the thread context class-loader while mappers
+     *         for the types are being generated
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+    
+    public Class<?> getSourceType(int index) {
+        return sourceTypes.get(index);
+    }
+    
+    public Class<?> getDestinationType(int index) {
+        return destinationTypes.get(index);
+    }
+    
+    /**
+     * Removes the generated class files.
+     */
+    public void delete() {
+        delete(directory);
+    }
+    
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
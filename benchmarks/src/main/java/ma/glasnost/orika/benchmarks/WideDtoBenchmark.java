@@ -0,0 +1,121 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Maps a single wide bean (300 properties by default) to another, with the
+ * map methods of its generated mapper either kept whole or split into helper
+ * methods (see the <code>maxMapMethodSize</code> option of the
+ * DefaultMapperFactory).
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WideDtoBenchmark {
+
+    @Param({ "300" })
+    public int properties;
+
+    /**
+     * 0 never splits (the default); 2000 splits wide mappers; 1 always splits
+     */
+    @Param({ "0", "2000", "1" })
+    public int maxMapMethodSize;
+
+    private SyntheticTypes types;
+    private Object source;
+    private BoundMapperFacade<Object, Object> mapper;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() throws Exception {
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        types = new SyntheticTypes(1, properties, originalClassLoader);
+        Thread.currentThread().setContextClassLoader(types.getClassLoader());
+        try {
+            MapperFactory factory = new DefaultMapperFactory.Builder().maxMapMethodSize(maxMapMethodSize).build();
+            factory.classMap(types.getSourceType(0), types.getDestinationType(0)).byDefault().register();
+            mapper = (BoundMapperFacade<Object, Object>) factory.getMapperFacade(types.getSourceType(0), types.getDestinationType(0),
+                    false);
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+        source = newSource(types.getSourceType(0));
+    }
+
+    @TearDown
+    public void deleteTypes() {
+        types.delete();
+    }
+
+    private static Object newSource(Class<?> sourceType) throws Exception {
+        Object source = sourceType.newInstance();
+        int i = 0;
+        for (Method setter : sourceType.getMethods()) {
+            if (setter.getName().startsWith("set") && setter.getParameterTypes().length == 1) {
+                Class<?> type = setter.getParameterTypes()[0];
+                ++i;
+                if (type == long.class) {
+                    setter.invoke(source, (long) i);
+                } else if (type == int.class) {
+                    setter.invoke(source, i);
+                } else if (type == boolean.class) {
+                    setter.invoke(source, i % 2 == 0);
+                } else if (type == Double.class) {
+                    setter.invoke(source, Double.valueOf(i));
+                } else if (type == String.class) {
+                    setter.invoke(source, "value" + i);
+                } else if (type == Date.class) {
+                    setter.invoke(source, new Date(i));
+                }
+            }
+        }
+        return source;
+    }
+
+    @Benchmark
+    public Object orika() {
+        return mapper.map(source);
+    }
+}
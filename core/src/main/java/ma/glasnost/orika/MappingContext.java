@@ -20,7 +20,6 @@ package ma.glasnost.orika;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,6 +29,7 @@ import ma.glasnost.orika.cern.colt.map.OpenIntObjectHashMap;
 import ma.glasnost.orika.metadata.ClassMap;
 import ma.glasnost.orika.metadata.MapperKey;
 import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.util.IdentityMappedObjectCache;
 
 /**
  * MappingContext provides storage for information shared among the various
@@ -39,7 +39,20 @@ import ma.glasnost.orika.metadata.Type;
 public class MappingContext {
     
     protected final Map<Type<?>, Type<?>> mapping;
-    protected final OpenIntObjectHashMap typeCache;
+    /**
+     * @deprecated no longer used by MappingContext itself, which holds the
+     *             objects already mapped in {@link #mappedObjects}; it is
+     *             created on first use by {@link #getTypeCache()} (through
+     *             which subclasses using it should access it), and still
+     *             cleared on {@link #reset()}.
+     */
+    @Deprecated
+    protected OpenIntObjectHashMap typeCache;
+    /**
+     * Objects already mapped, keyed by source identity and destination type;
+     * created on first use
+     */
+    protected IdentityMappedObjectCache mappedObjects;
     protected List<Map<MapperKey, ClassMap<?, ?>>> mappersSeen;
     protected Map<Object, Object> properties;
     protected Map<Object, Object> globalProperties;
@@ -50,12 +63,19 @@ public class MappingContext {
     protected Type<?> resolvedDestinationType;
     protected MappingStrategy resolvedStrategy;
     protected List<Object[]> fieldMappingStack;
+    /*
+     * Elements popped from the fieldMappingStack, reused by the fields mapped
+     * later on, in this and the following mapping requests
+     */
+    private List<Object[]> spareStackElements;
     protected boolean capturesFieldContext;
     
     public static enum StackElement {
         SOURCE_NAME, SOURCE_TYPE, SOURCE, DEST_NAME, DEST_TYPE, DEST;
     }
     
+    private static final int STACK_ELEMENT_LENGTH = StackElement.values().length;
+    
     /**
      * Factory constructs instances of the base MappingContext
      */
@@ -96,7 +116,6 @@ public class MappingContext {
      */
     public MappingContext(Map<Object, Object> globalProperties) {
         this.mapping = new HashMap<Type<?>, Type<?>>();
-        this.typeCache = new OpenIntObjectHashMap();
         this.globalProperties = globalProperties;
         Boolean capture = globalProperties != null ? (Boolean)globalProperties.get(Properties.CAPTURE_FIELD_CONTEXT) : null;
         this.capturesFieldContext = capture == null || capture;
@@ -170,16 +189,12 @@ public class MappingContext {
      * @param destinationType
      * @param destination
      */
-    @SuppressWarnings("unchecked")
     public <S, D> void cacheMappedObject(S source, Type<Object> destinationType, D destination) {
         if (containsCycle) {
-            Map<Object, Object> localCache = (Map<Object, Object>) typeCache.get(destinationType.getUniqueIndex());
-            if (localCache == null) {
-                localCache = new IdentityHashMap<Object, Object>(2);
-                typeCache.put(destinationType.getUniqueIndex(), localCache);
-                
+            if (mappedObjects == null) {
+                mappedObjects = new IdentityMappedObjectCache();
             }
-            localCache.put(source, destination);
+            mappedObjects.put(source, destinationType.getUniqueIndex(), destination);
             
             isNew = false;
         }
@@ -197,11 +212,10 @@ public class MappingContext {
     @SuppressWarnings("unchecked")
     public <D> D getMappedObject(Object source, Type<?> destinationType) {
         
-        if (isNew || !containsCycle) {
+        if (isNew || !containsCycle || mappedObjects == null) {
             return null;
         }
-        Map<Object, Object> localCache = (Map<Object, Object>) typeCache.get(destinationType.getUniqueIndex());
-        return (D) (localCache == null ? null : localCache.get(source));
+        return (D) mappedObjects.get(source, destinationType.getUniqueIndex());
     }
     
     /**
@@ -289,7 +303,11 @@ public class MappingContext {
         if (fieldMappingStack == null) {
             fieldMappingStack = new ArrayList<Object[]>();
         }
-        Object[] stackElement = new Object[StackElement.values().length];
+        if (spareStackElements == null) {
+            spareStackElements = new ArrayList<Object[]>();
+        }
+        Object[] stackElement = spareStackElements.isEmpty() ? new Object[STACK_ELEMENT_LENGTH]
+                : spareStackElements.remove(spareStackElements.size() - 1);
         stackElement[StackElement.SOURCE_NAME.ordinal()] = sourceName;
         stackElement[StackElement.SOURCE_TYPE.ordinal()] = sourceType;
         stackElement[StackElement.SOURCE.ordinal()] = source;
@@ -300,7 +318,40 @@ public class MappingContext {
     }
     
     public void endMappingField() {
-        fieldMappingStack.remove(fieldMappingStack.size() - 1);
+        releaseStackElement(fieldMappingStack.remove(fieldMappingStack.size() - 1));
+    }
+    
+    private void releaseStackElement(Object[] stackElement) {
+        /*
+         * Don't retain the mapped objects in a pooled context
+         */
+        stackElement[StackElement.SOURCE.ordinal()] = null;
+        stackElement[StackElement.DEST.ordinal()] = null;
+        if (spareStackElements != null) {
+            spareStackElements.add(stackElement);
+        }
+    }
+    
+    private boolean hasFieldContext() {
+        return capturesFieldContext && fieldMappingStack != null;
+    }
+    
+    private String qualifiedPath(String root, StackElement name) {
+        StringBuilder path = new StringBuilder(root);
+        for (Object[] element : fieldMappingStack) {
+            path.append(".");
+            path.append(element[name.ordinal()]);
+        }
+        return path.toString();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> T[] stackElements(StackElement name, T[] path) {
+        int idx = 0;
+        for (Object[] element : fieldMappingStack) {
+            path[idx++] = (T) element[name.ordinal()];
+        }
+        return path;
     }
     
     /**
@@ -308,15 +359,10 @@ public class MappingContext {
      *         currently being mapped
      */
     public String getFullyQualifiedSourcePath() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!hasFieldContext()) {
             return null;
         }
-        StringBuilder path = new StringBuilder("source");
-        for (Object[] element : fieldMappingStack) {
-            path.append(".");
-            path.append(element[StackElement.SOURCE_NAME.ordinal()]);
-        }
-        return path.toString();
+        return qualifiedPath("source", StackElement.SOURCE_NAME);
     }
     
     /**
@@ -326,15 +372,10 @@ public class MappingContext {
      *         class-map.
      */
     public String[] getSourceExpressionPaths() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!hasFieldContext()) {
             return null;
         }
-        String[] path = new String[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = (String) element[StackElement.SOURCE_NAME.ordinal()];
-        }
-        return path;
+        return stackElements(StackElement.SOURCE_NAME, new String[fieldMappingStack.size()]);
     }
     
     /**
@@ -343,15 +384,10 @@ public class MappingContext {
      *         source field being currently mapped
      */
     public Object[] getSourceObjects() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!hasFieldContext()) {
             return null;
         }
-        Object[] path = new Object[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = element[StackElement.SOURCE.ordinal()];
-        }
-        return path;
+        return stackElements(StackElement.SOURCE, new Object[fieldMappingStack.size()]);
     }
     
     /**
@@ -361,15 +397,10 @@ public class MappingContext {
      * 
      */
     public java.lang.reflect.Type[] getSourceTypePaths() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!hasFieldContext()) {
             return null;
         }
-        java.lang.reflect.Type[] path = new java.lang.reflect.Type[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = (java.lang.reflect.Type) element[StackElement.SOURCE_TYPE.ordinal()];
-        }
-        return path;
+        return stackElements(StackElement.SOURCE_TYPE, new java.lang.reflect.Type[fieldMappingStack.size()]);
     }
     
     /**
@@ -377,15 +408,10 @@ public class MappingContext {
      *         field currently being mapped
      */
     public String getFullyQualifiedDestinationPath() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!hasFieldContext()) {
             return null;
         }
-        StringBuilder path = new StringBuilder("destination");
-        for (Object[] element : fieldMappingStack) {
-            path.append(".");
-            path.append(element[StackElement.DEST_NAME.ordinal()]);
-        }
-        return path.toString();
+        return qualifiedPath("destination", StackElement.DEST_NAME);
     }
     
     /**
@@ -395,15 +421,10 @@ public class MappingContext {
      *         class-map.
      */
     public String[] getDestinationExpressionPaths() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!hasFieldContext()) {
             return null;
         }
-        String[] path = new String[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = (String) element[StackElement.DEST_NAME.ordinal()];
-        }
-        return path;
+        return stackElements(StackElement.DEST_NAME, new String[fieldMappingStack.size()]);
     }
     
     /**
@@ -412,15 +433,10 @@ public class MappingContext {
      *         destination field being currently mapped
      */
     public Object[] getDestinationObjects() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!hasFieldContext()) {
             return null;
         }
-        Object[] path = new Object[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = element[StackElement.DEST.ordinal()];
-        }
-        return path;
+        return stackElements(StackElement.DEST, new Object[fieldMappingStack.size()]);
     }
     
     /**
@@ -429,15 +445,10 @@ public class MappingContext {
      *         type in the chain of mappers called to map the current field.
      */
     public java.lang.reflect.Type[] getDestinationTypePaths() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!hasFieldContext()) {
             return null;
         }
-        java.lang.reflect.Type[] path = new java.lang.reflect.Type[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = (java.lang.reflect.Type) element[StackElement.DEST_TYPE.ordinal()];
-        }
-        return path;
+        return stackElements(StackElement.DEST_TYPE, new java.lang.reflect.Type[fieldMappingStack.size()]);
     }
     
     /**
@@ -447,21 +458,45 @@ public class MappingContext {
         --depth;
     }
     
+    /**
+     * @return the type cache of this context, created on first use
+     * @deprecated no longer used by MappingContext itself; see
+     *             {@link #typeCache}.
+     */
+    @Deprecated
+    protected OpenIntObjectHashMap getTypeCache() {
+        if (typeCache == null) {
+            typeCache = new OpenIntObjectHashMap(1);
+        }
+        return typeCache;
+    }
+    
     /**
      * Resets this context instance, in preparation for use by another mapping
-     * request
+     * request; structures which were never touched since the last reset are
+     * left alone, so releasing a context used for a flat mapping costs next to
+     * nothing.
      */
     public void reset() {
-        mapping.clear();
-        typeCache.clear();
-        if (properties != null) {
+        if (!mapping.isEmpty()) {
+            mapping.clear();
+        }
+        if (typeCache != null && !typeCache.isEmpty()) {
+            typeCache.clear();
+        }
+        if (mappedObjects != null) {
+            mappedObjects.clear();
+        }
+        if (properties != null && !properties.isEmpty()) {
             properties.clear();
         }
-        if (mappersSeen != null) {
+        if (mappersSeen != null && !mappersSeen.isEmpty()) {
             mappersSeen.clear();
         }
         if (fieldMappingStack != null) {
-            fieldMappingStack.clear();
+            while (!fieldMappingStack.isEmpty()) {
+                releaseStackElement(fieldMappingStack.remove(fieldMappingStack.size() - 1));
+            }
         }
         resolvedSourceType = null;
         resolvedDestinationType = null;
@@ -177,4 +177,68 @@ public final class OrikaSystemProperties {
      * default value is <code>true</code>
      */
     public static final String GET_DESTINATION_ON_MAPPING = "ma.glasnost.orika.getDestinationOnMapping";
+
+    /**
+     * Specifies whether the DefaultMapperFactory analyzes the type graph of its
+     * class-maps on build, so that types which can never take part in a cycle
+     * are mapped without tracking their instances in the MappingContext.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String ANALYZE_CYCLES = "ma.glasnost.orika.analyzeCycles";
+
+    /**
+     * Specifies whether the DefaultMapperFactory generates and compiles the
+     * mappers for its class-maps in parallel on build.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String PARALLEL_BUILD = "ma.glasnost.orika.parallelBuild";
+
+    /**
+     * Specifies whether the DefaultMapperFactory defers the generation of the
+     * mappers for its class-maps until each of them is first looked up or used.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String LAZY_BUILD = "ma.glasnost.orika.lazyBuild";
+
+    /**
+     * Specifies the estimated bytecode size (in bytes) beyond which the
+     * mapAtoB/mapBtoA methods of generated mappers have their field mappings
+     * split into private helper methods; 0 disables the splitting. The size
+     * is estimated from the length of the generated source.
+     * <p>
+     * Default value is <code>0</code>; note that HotSpot does not JIT-compile
+     * methods beyond 8000 bytes
+     */
+    public static final String MAX_MAP_METHOD_SIZE = "ma.glasnost.orika.maxMapMethodSize";
+
+    /**
+     * Specifies the directory in which the CachingCompilerStrategy stores the
+     * classes it compiles, so that they may be loaded (rather than compiled
+     * again) on the next start; their source is still generated.
+     * <p>
+     * Default value is the <code>orika-class-cache</code> directory within
+     * <code>java.io.tmpdir</code>
+     */
+    public static final String CLASS_CACHE_PATH = "ma.glasnost.orika.classCachePath";
+
+    /**
+     * Specifies the maximum number of class descriptors retained by the class
+     * pool of the JavassistCompilerStrategy; the least recently used ones are
+     * evicted beyond that number, and read again if needed.
+     * <p>
+     * Default value is <code>1024</code>
+     */
+    public static final String CLASS_POOL_SIZE = "ma.glasnost.orika.classPoolSize";
+
+    /**
+     * Specifies whether the JavassistCompilerStrategy discards its class pool
+     * at the end of each build of a MapperFactory, rather than keeping it for
+     * its whole lifetime.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String SCOPED_CLASS_POOL = "ma.glasnost.orika.scopedClassPool";
 }
@@ -31,5 +31,6 @@ public enum Properties {
     UNENHANCE_STRATEGY,
     FILTERS,
     CAPTURE_FIELD_CONTEXT,
-    SHOULD_GET_DESTINATION_ON_MAPPING
+    SHOULD_GET_DESTINATION_ON_MAPPING,
+    MAX_MAP_METHOD_SIZE
 }
@@ -141,6 +141,15 @@ public class OpenIntObjectHashMap {
         setUp(initialCapacity, minLoadFactor, maxLoadFactor);
     }
     
+    /**
+     * Returns <tt>true</tt> if the receiver contains no (key,value)
+     * associations.
+     * @return <tt>true</tt> if the receiver contains no associations.
+     */
+    public boolean isEmpty() {
+        return distinct == 0;
+    }
+    
     /**
      * Returns <tt>true</tt> if the receiver contains the specified key.
      * @param key the key to test for
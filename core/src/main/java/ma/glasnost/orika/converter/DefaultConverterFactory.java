@@ -44,7 +44,17 @@ import ma.glasnost.orika.metadata.TypeFactory;
  */
 public class DefaultConverterFactory implements ConverterFactory, Reportable {
     
+    /**
+     * Stands for "no converter" among the resolved converters
+     */
+    private static final Object NO_CONVERTER = new Object();
+    
     private final Map<ConverterKey, Converter<Object, Object>> converterCache;
+    /**
+     * The converter (or NO_CONVERTER) resolved for each source and destination
+     * type, auto-boxing included; read without locking
+     */
+    private final ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, Object>> resolvedConverters = new ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, Object>>();
     private Collection<Converter<Object, Object>> converters;
     private final Map<String, Converter<Object, Object>> convertersMap;
     private MapperFacade mapperFacade;
@@ -81,6 +91,7 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
         for (Converter<?, ?> converter : convertersMap.values()) {
             converter.setMapperFacade(mapperFacade);
         }
+        resolvedConverters.clear();
     }
     
     /*
@@ -112,7 +123,38 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
      * ma.glasnost.orika.converter.ConverterFactory#getConverter(java.lang.Class
      * , java.lang.Class)
      */
-    public synchronized Converter<Object, Object> getConverter(Type<?> sourceClass, Type<?> destinationClass) {
+    @SuppressWarnings("unchecked")
+    public Converter<Object, Object> getConverter(Type<?> sourceClass, Type<?> destinationClass) {
+        Map<Type<?>, Object> byDestination = resolvedConverters.get(sourceClass);
+        Object resolved = byDestination == null ? null : byDestination.get(destinationClass);
+        if (resolved == null) {
+            resolved = resolveConverter(sourceClass, destinationClass);
+        }
+        return resolved == NO_CONVERTER ? null : (Converter<Object, Object>) resolved;
+    }
+    
+    /**
+     * Resolves the converter for the specified types, and records it (or the
+     * lack of one) so that further lookups need not scan the converters again.
+     * 
+     * @param sourceClass
+     * @param destinationClass
+     * @return the resolved converter, or NO_CONVERTER
+     */
+    private synchronized Object resolveConverter(Type<?> sourceClass, Type<?> destinationClass) {
+        Converter<Object, Object> converter = findConverter(sourceClass, destinationClass);
+        Object resolved = converter == null ? NO_CONVERTER : converter;
+        
+        ConcurrentHashMap<Type<?>, Object> byDestination = resolvedConverters.get(sourceClass);
+        if (byDestination == null) {
+            byDestination = new ConcurrentHashMap<Type<?>, Object>();
+            resolvedConverters.put(sourceClass, byDestination);
+        }
+        byDestination.put(destinationClass, resolved);
+        return resolved;
+    }
+    
+    private Converter<Object, Object> findConverter(Type<?> sourceClass, Type<?> destinationClass) {
         
         // Step verify if converter exists for sourceClass and destination
         Converter<Object, Object> converter = _converter(sourceClass, destinationClass);
@@ -173,7 +215,7 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
      * .orika.converter.Converter)
      */
     @SuppressWarnings({ "unchecked" })
-    public <S, D> void registerConverter(Converter<S, D> converter) {
+    public synchronized <S, D> void registerConverter(Converter<S, D> converter) {
         if (mapperFacade != null) {
             throw new IllegalStateException("Cannot register converters after MapperFacade has been initialized");
         }
@@ -181,6 +223,7 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
         if (converter instanceof BidirectionalConverter && !converter.getAType().equals(converter.getBType())) {
             converters.add((Converter<Object, Object>) ((BidirectionalConverter<?, ?>) converter).reverse());
         }
+        resolvedConverters.clear();
     }
     
     /*
@@ -28,7 +28,7 @@ import ma.glasnost.orika.metadata.Type;
  * @author matt.deboer@gmail.com
  * 
  */
-public class CopyByReferenceConverter extends BuiltinCustomConverter<Object, Object> {
+public class CopyByReferenceConverter extends BuiltinCustomConverter<Object, Object> implements PrimitiveConversion {
     
     /*
      * (non-Javadoc)
@@ -45,4 +45,15 @@ public class CopyByReferenceConverter extends BuiltinCustomConverter<Object, Obj
     public Object convert(Object source, Type<? extends Object> destinationType, MappingContext context) {
         return source;
     }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ma.glasnost.orika.converter.builtin.PrimitiveConversion#isPrimitiveConversion
+     * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type)
+     */
+    public boolean isPrimitiveConversion(Type<?> sourceType, Type<?> destinationType) {
+        return canConvert(sourceType, destinationType);
+    }
 }
@@ -218,7 +218,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class IntegerToShortConverter extends BuiltinBidirectionalConverter<Integer, Short> {
+    public static class IntegerToShortConverter extends NarrowingConverter<Integer, Short> {
         
         private final boolean truncate;
         
@@ -269,7 +269,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class LongToShortConverter extends BuiltinBidirectionalConverter<Long, Short> {
+    public static class LongToShortConverter extends NarrowingConverter<Long, Short> {
         
         private final boolean truncate;
         
@@ -320,7 +320,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class LongToIntegerConverter extends BuiltinBidirectionalConverter<Long, Integer> {
+    public static class LongToIntegerConverter extends NarrowingConverter<Long, Integer> {
         
         private final boolean truncate;
         
@@ -371,7 +371,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class DoubleToLongConverter extends BuiltinBidirectionalConverter<Double, Long> {
+    public static class DoubleToLongConverter extends NarrowingConverter<Double, Long> {
         
         private final boolean truncate;
         
@@ -422,7 +422,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class DoubleToIntegerConverter extends BuiltinBidirectionalConverter<Double, Integer> {
+    public static class DoubleToIntegerConverter extends NarrowingConverter<Double, Integer> {
         
         private final boolean truncate;
         
@@ -473,7 +473,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class DoubleToShortConverter extends BuiltinBidirectionalConverter<Double, Short> {
+    public static class DoubleToShortConverter extends NarrowingConverter<Double, Short> {
         
         private final boolean truncate;
         
@@ -526,7 +526,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class FloatToLongConverter extends BuiltinBidirectionalConverter<Float, Long> {
+    public static class FloatToLongConverter extends NarrowingConverter<Float, Long> {
         
         private final boolean truncate;
         
@@ -577,7 +577,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class FloatToIntegerConverter extends BuiltinBidirectionalConverter<Float, Integer> {
+    public static class FloatToIntegerConverter extends NarrowingConverter<Float, Integer> {
         
         private final boolean truncate;
         
@@ -628,7 +628,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class FloatToShortConverter extends BuiltinBidirectionalConverter<Float, Short> {
+    public static class FloatToShortConverter extends NarrowingConverter<Float, Short> {
         
         private final boolean truncate;
         
@@ -674,4 +674,23 @@ public class NumericConverters {
         }
     }
     
+    /**
+     * A conversion from a primitive wrapper type to a narrower one; its
+     * reverse, from the narrower type to the wider one, is a widening
+     * primitive conversion.
+     */
+    abstract static class NarrowingConverter<C, D> extends BuiltinBidirectionalConverter<C, D> implements PrimitiveConversion {
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.builtin.PrimitiveConversion#isPrimitiveConversion
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type)
+         */
+        public boolean isPrimitiveConversion(Type<?> sourceType, Type<?> destinationType) {
+            return getBType().equals(sourceType) && (getAType().equals(destinationType) || getAType().isWrapperFor(destinationType));
+        }
+    }
+    
 }
@@ -38,7 +38,7 @@ import ma.glasnost.orika.metadata.TypeFactory;
  * @author elaatifi@gmail.com
  *
  */
-public class PassThroughConverter extends CustomConverter<Object, Object> {
+public class PassThroughConverter extends CustomConverter<Object, Object> implements PrimitiveConversion {
     
     private final Set<Type<?>> passThroughTypes = new HashSet<Type<?>>();
     private final String description;
@@ -87,6 +87,17 @@ public class PassThroughConverter extends CustomConverter<Object, Object> {
         return source;
     }
     
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ma.glasnost.orika.converter.builtin.PrimitiveConversion#isPrimitiveConversion
+     * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type)
+     */
+    public boolean isPrimitiveConversion(Type<?> sourceType, Type<?> destinationType) {
+        return canConvert(sourceType, destinationType);
+    }
+    
     public String toString() {
         return description;
     }
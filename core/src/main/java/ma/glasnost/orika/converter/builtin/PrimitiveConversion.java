@@ -0,0 +1,45 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.converter.builtin;
+
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * Implemented by the converters which convert the values of some primitive
+ * wrapper types exactly as the Java language converts the primitives they
+ * wrap: by an identity, widening primitive, boxing or unboxing conversion.
+ * Generated mappers may then convert such values (the elements of primitive
+ * arrays, for instance) themselves, rather than by calling the converter.<br>
+ * Subclasses which change the conversion of those values must not report
+ * them as primitive conversions.
+ * 
+ */
+public interface PrimitiveConversion {
+    
+    /**
+     * @param sourceType
+     *            a primitive wrapper type
+     * @param destinationType
+     *            the type to which values of the source type are converted
+     * @return true if this converter converts the values of the source type
+     *         to the destination type as the Java language converts the
+     *         primitives they wrap
+     */
+    boolean isPrimitiveConversion(Type<?> sourceType, Type<?> destinationType);
+}
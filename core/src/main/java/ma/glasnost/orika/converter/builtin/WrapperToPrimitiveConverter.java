@@ -28,7 +28,7 @@ import ma.glasnost.orika.metadata.Type;
  * @author matt.deboer@gmail.com
  *
  */
-public class WrapperToPrimitiveConverter extends CustomConverter<Object, Object> {
+public class WrapperToPrimitiveConverter extends CustomConverter<Object, Object> implements PrimitiveConversion {
     
     /*
      * (non-Javadoc)
@@ -69,4 +69,15 @@ public class WrapperToPrimitiveConverter extends CustomConverter<Object, Object>
         return null;
     }
     
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ma.glasnost.orika.converter.builtin.PrimitiveConversion#isPrimitiveConversion
+     * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type)
+     */
+    public boolean isPrimitiveConversion(Type<?> sourceType, Type<?> destinationType) {
+        return canConvert(sourceType, destinationType);
+    }
+    
 }
@@ -0,0 +1,444 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.converter.ConverterFactory;
+import ma.glasnost.orika.metadata.ClassMap;
+import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.Property;
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * CycleAnalyzer inspects the graph of types connected by class-maps to find
+ * the types whose instances can never be reached again while they are being
+ * mapped; the mapping strategies for these types need not track the objects
+ * they have mapped in the MappingContext.<br>
+ * <br>
+ * The graph has an edge from every class-mapped type to each class-mapped type
+ * which is assignable to one of its mapped properties, or to the elements of
+ * such a property. A type is acyclic when it lies on no cycle of that graph and
+ * cannot reach any type which is opaque to the analysis: a property type with
+ * no class-map of its own, <code>Object</code>, or a type handled by a custom
+ * Mapper. Properties resolved by a converter add no edges, and objects reached
+ * through a property are assumed to be instances of a class-mapped type.<br>
+ * <br>
+ * The graph is kept once analyzed, so that the class-maps and Mappers
+ * registered later can be added with {@link #update(Collection, Collection)},
+ * which only classifies again the types able to reach the ones that changed.
+ *
+ */
+public class CycleAnalyzer {
+
+    private final ConverterFactory converterFactory;
+
+    private final Map<Type<?>, Integer> nodes = new HashMap<Type<?>, Integer>();
+    private final List<Node> graph = new ArrayList<Node>();
+    private final Map<Class<?>, List<Integer>> nodesByRawSupertype = new HashMap<Class<?>, List<Integer>>();
+    private final Map<Class<?>, Set<Integer>> nodesByRawPropertyType = new HashMap<Class<?>, Set<Integer>>();
+    private final Set<Type<?>> customMappedTypes = new HashSet<Type<?>>();
+
+    /**
+     * A class-mapped type, with the class-maps in which it appears and the
+     * edges derived from them
+     */
+    private static class Node {
+        private final Type<?> type;
+        private final List<ClassMap<?, ?>> classMapsAsA = new ArrayList<ClassMap<?, ?>>(1);
+        private final List<ClassMap<?, ?>> classMapsAsB = new ArrayList<ClassMap<?, ?>>(1);
+        private final Set<Integer> successors = new LinkedHashSet<Integer>();
+        private final Set<Integer> predecessors = new HashSet<Integer>();
+        private boolean opaque;
+        private boolean tainted = true;
+
+        private Node(Type<?> type) {
+            this.type = type;
+        }
+    }
+
+    /**
+     * @param converterFactory
+     *            the converters used to decide which properties are converted
+     *            rather than mapped
+     */
+    public CycleAnalyzer(ConverterFactory converterFactory) {
+        this.converterFactory = converterFactory;
+    }
+
+    /**
+     * Finds the acyclic types among those mapped by the given class-maps.
+     *
+     * @param classMaps
+     *            the class-maps whose types form the graph
+     * @param customMappers
+     *            Mappers other than those generated from the class-maps;
+     *            the types they map are opaque to the analysis
+     * @return the set of acyclic types
+     */
+    public Set<Type<?>> findAcyclicTypes(Collection<? extends ClassMap<?, ?>> classMaps, Collection<? extends Mapper<?, ?>> customMappers) {
+
+        for (Mapper<?, ?> mapper : customMappers) {
+            customMappedTypes.add(mapper.getAType());
+            customMappedTypes.add(mapper.getBType());
+        }
+        for (ClassMap<?, ?> classMap : classMaps) {
+            addClassMap(classMap);
+        }
+        List<Integer> all = new ArrayList<Integer>(graph.size());
+        for (int i = 0; i < graph.size(); ++i) {
+            addEdges(i);
+            all.add(i);
+        }
+        classify(all);
+
+        Set<Type<?>> acyclic = new LinkedHashSet<Type<?>>();
+        for (Node node : graph) {
+            if (!node.tainted) {
+                acyclic.add(node.type);
+            }
+        }
+        return acyclic;
+    }
+
+    /**
+     * Adds class-maps and custom Mappers registered after the analysis, and
+     * classifies again those types which can reach any of the types they
+     * affect; the other types keep their classification.
+     *
+     * @param classMaps
+     *            the class-maps registered (or replaced) since the analysis
+     * @param customMappers
+     *            the custom Mappers registered since the analysis
+     * @return the types classified again, mapped to whether they are now
+     *         acyclic
+     */
+    public Map<Type<?>, Boolean> update(Collection<? extends ClassMap<?, ?>> classMaps, Collection<? extends Mapper<?, ?>> customMappers) {
+
+        Set<Integer> changed = new LinkedHashSet<Integer>();
+        for (Mapper<?, ?> mapper : customMappers) {
+            for (Type<?> type : Arrays.<Type<?>> asList(mapper.getAType(), mapper.getBType())) {
+                if (customMappedTypes.add(type) && nodes.containsKey(type)) {
+                    changed.add(nodes.get(type));
+                }
+            }
+        }
+        for (ClassMap<?, ?> classMap : classMaps) {
+            int size = graph.size();
+            changed.addAll(addClassMap(classMap));
+            /*
+             * New types may give an edge to the types having a property they
+             * are assignable to
+             */
+            for (int i = size; i < graph.size(); ++i) {
+                for (Class<?> supertype : rawSupertypes(graph.get(i).type.getRawType(), new LinkedHashSet<Class<?>>())) {
+                    Set<Integer> users = nodesByRawPropertyType.get(supertype);
+                    if (users != null) {
+                        changed.addAll(users);
+                    }
+                }
+            }
+        }
+        for (Integer index : changed) {
+            addEdges(index);
+        }
+
+        List<Integer> affected = new ArrayList<Integer>(changed);
+        Set<Integer> visited = new HashSet<Integer>(changed);
+        for (int i = 0; i < affected.size(); ++i) {
+            for (Integer predecessor : graph.get(affected.get(i)).predecessors) {
+                if (visited.add(predecessor)) {
+                    affected.add(predecessor);
+                }
+            }
+        }
+        classify(affected);
+
+        Map<Type<?>, Boolean> result = new LinkedHashMap<Type<?>, Boolean>();
+        for (Integer index : affected) {
+            Node node = graph.get(index);
+            result.put(node.type, !node.tainted);
+        }
+        return result;
+    }
+
+    private List<Integer> addClassMap(ClassMap<?, ?> classMap) {
+        int a = node(classMap.getAType());
+        int b = node(classMap.getBType());
+        replace(graph.get(a).classMapsAsA, classMap);
+        replace(graph.get(b).classMapsAsB, classMap);
+        return Arrays.asList(a, b);
+    }
+
+    private static void replace(List<ClassMap<?, ?>> classMaps, ClassMap<?, ?> classMap) {
+        for (Iterator<ClassMap<?, ?>> iter = classMaps.iterator(); iter.hasNext();) {
+            ClassMap<?, ?> existing = iter.next();
+            if (existing.getAType().equals(classMap.getAType()) && existing.getBType().equals(classMap.getBType())) {
+                iter.remove();
+            }
+        }
+        classMaps.add(classMap);
+    }
+
+    private int node(Type<?> type) {
+        Integer index = nodes.get(type);
+        if (index == null) {
+            index = graph.size();
+            nodes.put(type, index);
+            graph.add(new Node(type));
+            for (Class<?> supertype : rawSupertypes(type.getRawType(), new LinkedHashSet<Class<?>>())) {
+                List<Integer> list = nodesByRawSupertype.get(supertype);
+                if (list == null) {
+                    list = new ArrayList<Integer>();
+                    nodesByRawSupertype.put(supertype, list);
+                }
+                list.add(index);
+            }
+        }
+        return index;
+    }
+
+    private static Set<Class<?>> rawSupertypes(Class<?> rawType, Set<Class<?>> result) {
+        if (rawType != null && result.add(rawType)) {
+            rawSupertypes(rawType.getSuperclass(), result);
+            for (Class<?> iface : rawType.getInterfaces()) {
+                rawSupertypes(iface, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * (Re)builds the edges leaving the specified node from its class-maps
+     */
+    private void addEdges(int from) {
+        Node node = graph.get(from);
+        for (Integer successor : node.successors) {
+            graph.get(successor).predecessors.remove(from);
+        }
+        node.successors.clear();
+        node.opaque = customMappedTypes.contains(node.type);
+
+        for (ClassMap<?, ?> classMap : node.classMapsAsA) {
+            addEdges(from, classMap, true);
+        }
+        for (ClassMap<?, ?> classMap : node.classMapsAsB) {
+            addEdges(from, classMap, false);
+        }
+        for (Integer successor : node.successors) {
+            graph.get(successor).predecessors.add(from);
+        }
+    }
+
+    private void addEdges(int from, ClassMap<?, ?> classMap, boolean isA) {
+        if (classMap.getCustomizedMapper() != null) {
+            graph.get(from).opaque = true;
+            return;
+        }
+        for (FieldMap fieldMap : classMap.getFieldsMapping()) {
+            if (fieldMap.isExcluded() || fieldMap.isIgnored() || isConverted(fieldMap)) {
+                continue;
+            }
+            addEdges(from, isA ? fieldMap.getSource() : fieldMap.getDestination());
+        }
+        for (MapperKey usedMapper : classMap.getUsedMappers()) {
+            addEdge(from, isA ? usedMapper.getAType() : usedMapper.getBType());
+        }
+    }
+
+    private boolean isConverted(FieldMap fieldMap) {
+        Type<?> sourceType = fieldMap.getSource().getType();
+        Type<?> destinationType = fieldMap.getDestination().getType();
+        return fieldMap.getConverterId() != null || converterFactory.canConvert(sourceType, destinationType)
+                || converterFactory.canConvert(destinationType, sourceType);
+    }
+
+    private void addEdge(int from, Type<?> to) {
+        addPropertyTypeUser(from, to.getRawType());
+        Integer index = nodes.get(to);
+        if (index == null) {
+            graph.get(from).opaque = true;
+        } else {
+            graph.get(from).successors.add(index);
+        }
+    }
+
+    private void addPropertyTypeUser(int from, Class<?> rawType) {
+        Set<Integer> users = nodesByRawPropertyType.get(rawType);
+        if (users == null) {
+            users = new HashSet<Integer>();
+            nodesByRawPropertyType.put(rawType, users);
+        }
+        users.add(from);
+    }
+
+    private void addEdges(int from, Property property) {
+        addTypeEdges(from, property.getType());
+        if (property.getElement() != null) {
+            addEdges(from, property.getElement());
+        }
+    }
+
+    private void addTypeEdges(int from, Type<?> type) {
+        if (type == null || Object.class.equals(type.getRawType())) {
+            graph.get(from).opaque = true;
+        } else if (type.isImmutable()) {
+            return;
+        } else if (type.isArray()) {
+            addTypeEdges(from, type.getComponentType());
+        } else if (type.isCollection()) {
+            addTypeEdges(from, type.getNestedType(0));
+        } else if (type.isMap()) {
+            addTypeEdges(from, type.getNestedType(0));
+            addTypeEdges(from, type.getNestedType(1));
+        } else {
+            addPropertyTypeUser(from, type.getRawType());
+            boolean assignable = false;
+            List<Integer> candidates = nodesByRawSupertype.get(type.getRawType());
+            if (candidates != null) {
+                for (Integer candidate : candidates) {
+                    if (type.isAssignableFrom(graph.get(candidate).type)) {
+                        graph.get(from).successors.add(candidate);
+                        assignable = true;
+                    }
+                }
+            }
+            boolean isAbstract = Modifier.isAbstract(type.getRawType().getModifiers());
+            if (!nodes.containsKey(type) && (!isAbstract || !assignable)) {
+                graph.get(from).opaque = true;
+            }
+        }
+    }
+
+    /**
+     * Classifies the specified nodes, which must include every node able to
+     * reach one of them, by finding the strongly connected components of the
+     * graph they form using (an iterative form of) Tarjan's algorithm;
+     * components are completed in reverse topological order, so every
+     * component reachable from the one being completed has already been
+     * classified. The nodes outside of the scope keep their classification.
+     */
+    private void classify(List<Integer> scope) {
+        final int size = scope.size();
+        Map<Integer, Integer> local = new HashMap<Integer, Integer>(size * 2);
+        for (int i = 0; i < size; ++i) {
+            local.put(scope.get(i), i);
+        }
+        int[][] edges = new int[size][];
+        boolean[] tainted = new boolean[size];
+        for (int i = 0; i < size; ++i) {
+            Node node = graph.get(scope.get(i));
+            int[] targets = new int[node.successors.size()];
+            int j = 0;
+            for (Integer target : node.successors) {
+                Integer localTarget = local.get(target);
+                if (localTarget != null) {
+                    targets[j++] = localTarget;
+                } else {
+                    tainted[i] |= graph.get(target).tainted;
+                }
+            }
+            edges[i] = Arrays.copyOf(targets, j);
+            tainted[i] |= node.opaque;
+        }
+
+        int[] index = new int[size];
+        int[] low = new int[size];
+        int[] component = new int[size];
+        int[] edgePosition = new int[size];
+        int[] callStack = new int[size];
+        int[] stack = new int[size];
+        boolean[] onStack = new boolean[size];
+        Arrays.fill(index, -1);
+
+        int nextIndex = 0;
+        int stackSize = 0;
+        int components = 0;
+
+        for (int root = 0; root < size; ++root) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = low[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int v = callStack[depth - 1];
+                if (edgePosition[v] < edges[v].length) {
+                    int w = edges[v][edgePosition[v]++];
+                    if (index[w] < 0) {
+                        index[w] = low[w] = nextIndex++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callStack[depth++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                --depth;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] != index[v]) {
+                    continue;
+                }
+
+                int id = ++components;
+                int first = stackSize;
+                do {
+                    --first;
+                    onStack[stack[first]] = false;
+                    component[stack[first]] = id;
+                } while (stack[first] != v);
+
+                boolean isTainted = stackSize - first > 1;
+                for (int i = first; i < stackSize; ++i) {
+                    int member = stack[i];
+                    isTainted |= tainted[member];
+                    for (int target : edges[member]) {
+                        isTainted |= component[target] == id || tainted[target];
+                    }
+                }
+                for (int i = first; i < stackSize; ++i) {
+                    tainted[stack[i]] = isTainted;
+                    graph.get(scope.get(stack[i])).tainted = isTainted;
+                }
+                stackSize = first;
+            }
+        }
+    }
+}
@@ -44,6 +44,8 @@ import ma.glasnost.orika.impl.generator.specification.MultiOccurrenceToMultiOccu
 import ma.glasnost.orika.impl.generator.specification.ObjectToMultiOccurrenceElement;
 import ma.glasnost.orika.impl.generator.specification.ObjectToObject;
 import ma.glasnost.orika.impl.generator.specification.PrimitiveAndObject;
+import ma.glasnost.orika.impl.generator.specification.PrimitiveArrayToArray;
+import ma.glasnost.orika.impl.generator.specification.PrimitiveArrayToCollection;
 import ma.glasnost.orika.impl.generator.specification.StringToEnum;
 import ma.glasnost.orika.impl.generator.specification.StringToStringConvertible;
 import ma.glasnost.orika.impl.generator.specification.UnmappableEnum;
@@ -69,6 +71,8 @@ public class DefaultCodeGenerationStrategy implements CodeGenerationStrategy {
                         new EnumToEnum(), 
                         new StringToEnum(), 
                         new UnmappableEnum(), 
+                        new PrimitiveArrayToArray(),
+                        new PrimitiveArrayToCollection(),
                         new ArrayOrCollectionToArray(),
                         new ArrayOrCollectionToCollection(), 
                         new MapToMap(), 
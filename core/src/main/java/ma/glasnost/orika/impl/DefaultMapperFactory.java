@@ -44,8 +44,16 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Constructor;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.lang.Boolean.valueOf;
 import static java.lang.System.getProperty;
@@ -71,6 +79,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
 
     protected final ConcurrentHashMap<MapperKey, ClassMap<Object, Object>> classMapRegistry;
     protected final SortedCollection<Mapper<Object, Object>> mappersRegistry;
+    private volatile RegisteredMapperIndex registeredMapperIndex;
     protected final SortedCollection<Filter<Object, Object>> filtersRegistry;
     protected final MappingContextFactory contextFactory;
     protected final MappingContextFactory nonCyclicContextFactory;
@@ -93,8 +102,36 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
     protected final boolean useAutoMapping;
     protected final boolean useBuiltinConverters;
     protected final boolean favorExtension;
+    protected final boolean analyzeCycles;
+    protected final boolean parallelBuild;
+    protected final boolean lazyBuild;
+    protected final Set<Type<?>> acyclicTypes = Collections.newSetFromMap(new ConcurrentHashMap<Type<?>, Boolean>());
+    protected final ConcurrentHashMap<Type<?>, AtomicBoolean> acyclicFlags = new ConcurrentHashMap<Type<?>, AtomicBoolean>();
+    private CycleAnalyzer cycleAnalyzer;
+    /**
+     * The canonical BoundMapperFacade instances, per source and destination
+     * type, for cyclic and non-cyclic mapping respectively
+     */
+    protected final ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, BoundMapperFacade<?, ?>>> boundMapperFacades = new ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, BoundMapperFacade<?, ?>>>();
+    protected final ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, BoundMapperFacade<?, ?>>> nonCyclicBoundMapperFacades = new ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, BoundMapperFacade<?, ?>>>();
     protected volatile boolean isBuilt = false;
     protected volatile boolean isBuilding = false;
+    /**
+     * The thread running the build in progress, if any
+     */
+    private volatile Thread buildingThread;
+    protected final ExecutorService parallelBuildExecutor;
+    /**
+     * The threads currently generating mappers for a parallel build
+     */
+    private final Set<Thread> parallelBuildWorkers = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    /**
+     * The mappers and object factories currently being generated once the
+     * factory is built, so that concurrent requests for the same types wait
+     * for the one generation in progress instead of repeating it
+     */
+    private final ConcurrentHashMap<MapperKey, Generation<Mapper<?, ?>>> mapperGenerations = new ConcurrentHashMap<MapperKey, Generation<Mapper<?, ?>>>();
+    private final ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, Generation<ObjectFactory<?>>>> objectFactoryGenerations = new ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, Generation<ObjectFactory<?>>>>();
 
     protected final ExceptionUtility exceptionUtil;
     
@@ -118,7 +155,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         this.userUnenahanceStrategy = builder.unenhanceStrategy;
         this.unenhanceStrategy = buildUnenhanceStrategy(builder.unenhanceStrategy, builder.superTypeStrategy);
         this.contextFactory = builder.mappingContextFactory;
-        this.nonCyclicContextFactory = new NonCyclicMappingContext.Factory(this.contextFactory.getGlobalProperties());
+        this.nonCyclicContextFactory = buildNonCyclicContextFactory(this.contextFactory);
         this.exceptionUtil = new ExceptionUtility(this, builder.dumpStateOnException);
         this.mapperFacade = buildMapperFacade(contextFactory, unenhanceStrategy);
         this.concreteTypeRegistry = new ConcurrentHashMap<java.lang.reflect.Type, Type<?>>();
@@ -143,6 +180,10 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         this.useAutoMapping = builder.useAutoMapping;
         this.favorExtension = builder.favorExtension;
         this.useBuiltinConverters = builder.useBuiltinConverters;
+        this.analyzeCycles = builder.analyzeCycles;
+        this.parallelBuild = builder.parallelBuild;
+        this.parallelBuildExecutor = builder.parallelBuildExecutor;
+        this.lazyBuild = builder.lazyBuild;
         
         builder.codeGenerationStrategy.setMapperFactory(this);
         
@@ -156,6 +197,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         props.put(Properties.FILTERS, this.filtersRegistry);
         props.put(Properties.CAPTURE_FIELD_CONTEXT, builder.captureFieldContext);
         props.put(Properties.SHOULD_GET_DESTINATION_ON_MAPPING, builder.getDestinationOnMapping);
+        props.put(Properties.MAX_MAP_METHOD_SIZE, builder.maxMapMethodSize);
 
 
         /*
@@ -287,6 +329,35 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
          * <p>
          */
         protected Boolean getDestinationOnMapping;
+        /**
+         * The configured value of whether the class-map type graph should be
+         * analyzed on build to find the types which can never take part in a
+         * cycle, so that mapped objects of those types are not tracked in the
+         * MappingContext.
+         */
+        protected Boolean analyzeCycles;
+        /**
+         * The configured value of whether the mappers for the registered
+         * class-maps should be generated in parallel when the MapperFactory is
+         * built.
+         */
+        protected Boolean parallelBuild;
+        /**
+         * The configured executor on which the mappers are generated for a
+         * parallel build, or null for the common fork-join pool.
+         */
+        protected ExecutorService parallelBuildExecutor;
+        /**
+         * The configured value of whether the mappers for the registered
+         * class-maps should only be generated when first needed, rather than
+         * when the MapperFactory is built.
+         */
+        protected Boolean lazyBuild;
+        /**
+         * The configured estimated bytecode size beyond which the map methods
+         * of generated mappers are split into helper methods.
+         */
+        protected Integer maxMapMethodSize;
 
         /**
          * Instantiates a new MapperFactoryBuilder
@@ -309,6 +380,10 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
                     getProperty("ma.glasnost.orika.alwaysCreateMultipleMapperWrapper", "false"));
             codeGenerationStrategy = new DefaultCodeGenerationStrategy();
             getDestinationOnMapping = valueOf(getProperty(GET_DESTINATION_ON_MAPPING, "true"));
+            analyzeCycles = valueOf(getProperty(ANALYZE_CYCLES, "false"));
+            parallelBuild = valueOf(getProperty(PARALLEL_BUILD, "false"));
+            lazyBuild = valueOf(getProperty(LAZY_BUILD, "false"));
+            maxMapMethodSize = Integer.valueOf(getProperty(MAX_MAP_METHOD_SIZE, "0"));
         }
         
         /**
@@ -414,7 +489,8 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         
         /**
          * Configure the MappingContextFactory to use with the generated
-         * MapperFactory
+         * MapperFactory; use a {@link StripedMappingContextFactory} to avoid
+         * contention on the context pool when mapping from many threads.
          * 
          * @param mappingContextFactory
          * @return a reference to <code>this</code> MapperFactoryBuilder
@@ -521,6 +597,99 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
             return self();
         }
         
+        /**
+         * Configure whether the type graph formed by the registered
+         * class-maps should be analyzed when the MapperFactory is built; types
+         * found never to take part in a cycle are then mapped without tracking
+         * their instances in the MappingContext, just as they would be by a
+         * BoundMapperFacade obtained with <code>containsCycles == false</code>.
+         * <br>
+         * Note that this means a source instance referenced more than once
+         * from the same graph is mapped to distinct destination instances;
+         * also, the analysis only sees the declared types of the class-maps,
+         * and assumes that the objects reached through a property are
+         * instances of a class-mapped type.<br>
+         * Default value is <code>false</code>
+         * 
+         * @param analyzeCycles
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B analyzeCycles(boolean analyzeCycles) {
+            this.analyzeCycles = analyzeCycles;
+            return self();
+        }
+        
+        /**
+         * Configure whether the mappers for the registered class-maps should
+         * be generated and compiled in parallel, on the common fork-join pool
+         * unless another executor is configured with
+         * {@link #parallelBuildExecutor(ExecutorService)}, when the
+         * MapperFactory is built; the used mappers and object factories are
+         * still wired afterwards, one class-map at a time, in registration
+         * order.<br>
+         * Default value is <code>false</code>
+         * 
+         * @param parallelBuild
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B parallelBuild(boolean parallelBuild) {
+            this.parallelBuild = parallelBuild;
+            return self();
+        }
+        
+        /**
+         * Configure the executor on which the mappers are generated when the
+         * MapperFactory is built in parallel (see
+         * {@link #parallelBuild(boolean)}); the executor is not shut down by
+         * the MapperFactory.<br>
+         * Default value is <code>null</code>, for the common fork-join pool
+         * 
+         * @param parallelBuildExecutor
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B parallelBuildExecutor(ExecutorService parallelBuildExecutor) {
+            this.parallelBuildExecutor = parallelBuildExecutor;
+            return self();
+        }
+        
+        /**
+         * Configure whether the mappers for the registered class-maps should
+         * only be generated and compiled the first time they are looked up or
+         * used, rather than when the MapperFactory is built; the class-maps are
+         * still registered, and their used mappers wired, on build. This
+         * makes the cost of the build scale with the class-maps actually used,
+         * but also defers any error in generating a mapper until then.<br>
+         * Class-maps which specify a constructor are still generated on build,
+         * as their object factories are.<br>
+         * Default value is <code>false</code>
+         * 
+         * @param lazyBuild
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B lazyBuild(boolean lazyBuild) {
+            this.lazyBuild = lazyBuild;
+            return self();
+        }
+        
+        /**
+         * Configure the estimated bytecode size (in bytes) beyond which the
+         * mapAtoB/mapBtoA methods of generated mappers have their field
+         * mappings grouped into private helper methods, each small enough to
+         * be inlined by the JIT; 0 disables the splitting. Large methods are
+         * optimized less well, and HotSpot does not JIT-compile methods beyond
+         * 8000 bytes at all. The size is estimated from the length of the
+         * generated source (about 5 characters per byte), so a limit of 2000
+         * keeps wide mappers well below that threshold.<br>
+         * Default value is <code>0</code>
+         * 
+         * @param maxMapMethodSize
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B maxMapMethodSize(int maxMapMethodSize) {
+            this.maxMapMethodSize = maxMapMethodSize;
+            return self();
+        }
+        
         /**
          * Get a reference to the CodeGenerationStrategy associated with this
          * MapperFactory, which may be used to configure/customize the
@@ -680,6 +849,23 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         return unenhancer;
     }
     
+    /**
+     * Builds the MappingContextFactory used for mappings which are known not to
+     * contain cycles; it shares the global properties of the passed (default)
+     * context factory, and pools contexts in the same way when that factory is
+     * a {@link StripedMappingContextFactory}.
+     * 
+     * @param contextFactory
+     *            the context factory configured for this MapperFactory
+     * @return the MappingContextFactory to use for non-cyclic mappings
+     */
+    protected MappingContextFactory buildNonCyclicContextFactory(MappingContextFactory contextFactory) {
+        if (contextFactory instanceof StripedMappingContextFactory) {
+            return ((StripedMappingContextFactory) contextFactory).nonCyclic();
+        }
+        return new NonCyclicMappingContext.Factory(contextFactory.getGlobalProperties());
+    }
+    
     /**
      * Builds the MapperFacade for this factory. Subclasses can override this
      * method to build a custom MapperFacade. Please note that this method is
@@ -728,57 +914,114 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
             mapper = null;
         }
         if (mapper == null && useAutoMapping) {
-            synchronized (this) {
-                mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
-                boolean internalMapperMustBeGenerated = internalMapperMustBeGenerated(mapper, mapperKey);
-                if (internalMapperMustBeGenerated) {
-                    mapper = null;
+            if (!isBuilt || Thread.holdsLock(this)) {
+                synchronized (this) {
+                    mapper = generateMapper(mapperKey, context);
                 }
-                if (mapper == null) {
-                    try {
-                        /*
-                         * We shouldn't create a mapper for an immutable type;
-                         * although it will succeed in generating an empty
-                         * mapper, it won't actually result in a valid mapping,
-                         * so it's better to throw an exception to indicate more
-                         * clearly that something went wrong. However, there is
-                         * a possibility that a custom ObjectFactory was
-                         * registered for the immutable type, which would be
-                         * valid.
-                         */
-                        if (mapperKey.getBType().isImmutable() && !objectFactoryRegistry.containsKey(mapperKey.getBType())) {
-                            throw new MappingException("No converter registered for conversion from " + mapperKey.getAType() + " to "
-                                    + mapperKey.getBType() + ", nor any ObjectFactory which can generate " + mapperKey.getBType()
-                                    + " from " + mapperKey.getAType());
-                        }
-                        
-                        LOGGER.debug("No mapper registered for {}: attempting to generate", mapperKey);
-                        
-                        ClassMapBuilder<?, ?> builder = classMap(mapperKey.getAType(), mapperKey.getBType()).byDefault();
-                        for (MapperKey key : discoverUsedMappers(builder)) {
-                            builder.use(key.getAType(), key.getBType());
+            } else {
+                for (;;) {
+                    Generation<Mapper<?, ?>> generation = new Generation<Mapper<?, ?>>();
+                    Generation<Mapper<?, ?>> pending = mapperGenerations.putIfAbsent(mapperKey, generation);
+                    if (pending == null) {
+                        try {
+                            mapper = generateMapper(mapperKey, context);
+                            generation.complete(mapper);
+                        } finally {
+                            mapperGenerations.remove(mapperKey, generation);
+                            generation.release();
                         }
-                        final ClassMap<?, ?> classMap = builder.toClassMap();
-                        
-                        buildObjectFactories(classMap, context);
-                        mapper = buildMapper(classMap, true, context);
-                        initializeUsedMappers(mapper, classMap, context);
-                        if (internalMapperMustBeGenerated || alwaysCreateMultipleMapperWrapper) {
-                            // regenerate MultipleMapperWrapper.
-                            mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
+                        break;
+                    } else if (pending.isOwnedByCurrentThread() || !pending.beginWait()) {
+                        synchronized (this) {
+                            mapper = generateMapper(mapperKey, context);
                         }
-                    } catch (MappingException e) {
-                        e.setSourceType(mapperKey.getAType());
-                        e.setDestinationType(mapperKey.getBType());
-                        throw exceptionUtil.decorate(e);
+                        break;
+                    } else if (pending.await()) {
+                        mapper = pending.get();
+                        break;
                     }
+                    // the pending generation failed; attempt our own
                 }
             }
-            
+        }
+        if (mapper instanceof LazyGeneratedMapper && !Thread.holdsLock(this) && !LazyGeneratedMapper.isGenerating()) {
+            /*
+             * Generate the mapper of a lazily built class-map on lookup, so
+             * that any error is reported to the caller at this point
+             */
+            ((LazyGeneratedMapper) mapper).getDelegate();
         }
         return (Mapper<Object, Object>) mapper;
     }
 
+    /**
+     * Generates a mapper for the types of the specified key, unless a suitable
+     * one has been registered in the meantime.<br>
+     * The class-map, object factories and mapper are generated without holding
+     * the lock on this factory, so that mappers for distinct keys can be
+     * generated in parallel; the lock is only held while the mapper is
+     * registered and its used mappers are wired, so that the registry and the
+     * used mappers are always consistent.
+     *
+     * @param mapperKey
+     * @param context
+     * @return the mapper for the specified key
+     */
+    private Mapper<?, ?> generateMapper(MapperKey mapperKey, MappingContext context) {
+        Mapper<?, ?> mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
+        boolean internalMapperMustBeGenerated = internalMapperMustBeGenerated(mapper, mapperKey);
+        if (internalMapperMustBeGenerated) {
+            mapper = null;
+        }
+        if (mapper == null) {
+            try {
+                /*
+                 * We shouldn't create a mapper for an immutable type; although
+                 * it will succeed in generating an empty mapper, it won't
+                 * actually result in a valid mapping, so it's better to throw
+                 * an exception to indicate more clearly that something went
+                 * wrong. However, there is a possibility that a custom
+                 * ObjectFactory was registered for the immutable type, which
+                 * would be valid.
+                 */
+                if (mapperKey.getBType().isImmutable() && !objectFactoryRegistry.containsKey(mapperKey.getBType())) {
+                    throw new MappingException("No converter registered for conversion from " + mapperKey.getAType() + " to "
+                            + mapperKey.getBType() + ", nor any ObjectFactory which can generate " + mapperKey.getBType() + " from "
+                            + mapperKey.getAType());
+                }
+
+                LOGGER.debug("No mapper registered for {}: attempting to generate", mapperKey);
+
+                ClassMapBuilder<?, ?> builder = classMap(mapperKey.getAType(), mapperKey.getBType()).byDefault();
+                for (MapperKey key : discoverUsedMappers(builder)) {
+                    builder.use(key.getAType(), key.getBType());
+                }
+                final ClassMap<?, ?> classMap = builder.toClassMap();
+
+                buildObjectFactories(classMap, context);
+                GeneratedMapperBase generatedMapper = generateMapper(classMap, true, context);
+
+                synchronized (this) {
+                    registerGeneratedMapper(classMap, generatedMapper);
+                    initializeUsedMappers(generatedMapper, classMap, context);
+                    if (isBuilt) {
+                        updateCycleAnalysis(Collections.singleton(classMap), Collections.<Mapper<?, ?>> emptySet());
+                    }
+                    mapper = generatedMapper;
+                    if (internalMapperMustBeGenerated || alwaysCreateMultipleMapperWrapper) {
+                        // regenerate MultipleMapperWrapper.
+                        mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
+                    }
+                }
+            } catch (MappingException e) {
+                e.setSourceType(mapperKey.getAType());
+                e.setDestinationType(mapperKey.getBType());
+                throw exceptionUtil.decorate(e);
+            }
+        }
+        return mapper;
+    }
+
     private boolean internalMapperMustBeGenerated(Mapper<?, ?> mapper, MapperKey mapperKey) {
         boolean internalMapperMustBeGenerated = false;
         if (mapperKey.getBType().isConcrete() && mapper instanceof MultipleMapperWrapper) {
@@ -821,12 +1064,39 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
      */
     @SuppressWarnings("unchecked")
     private <A, B> Mapper<A, B> getRegisteredMapper(Type<A> typeA, Type<B> typeB, boolean includeAutoGeneratedMappers) {
+        RegisteredMapperIndex index = getRegisteredMapperIndex();
+        Object resolved = index.getResolved(typeA, typeB, includeAutoGeneratedMappers);
+        if (resolved == null) {
+            Mapper<A, B> mapper = findRegisteredMapper(index, typeA, typeB, includeAutoGeneratedMappers);
+            resolved = index.putResolved(typeA, typeB, includeAutoGeneratedMappers, mapper);
+        }
+        return resolved == RegisteredMapperIndex.NONE ? null : (Mapper<A, B>) resolved;
+    }
+    
+    /**
+     * @return an index of the current contents of the mappersRegistry,
+     *         rebuilt if the registry (or the set of object factories) has
+     *         changed since it was last built
+     */
+    private RegisteredMapperIndex getRegisteredMapperIndex() {
+        RegisteredMapperIndex index = registeredMapperIndex;
+        int modificationCount = mappersRegistry.getModificationCount();
+        if (index == null || index.getModificationCount() != modificationCount) {
+            index = new RegisteredMapperIndex(new ArrayList<Mapper<Object, Object>>(mappersRegistry), modificationCount);
+            registeredMapperIndex = index;
+        }
+        return index;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <A, B> Mapper<A, B> findRegisteredMapper(RegisteredMapperIndex index, Type<A> typeA, Type<B> typeB,
+            boolean includeAutoGeneratedMappers) {
         List<Mapper<A, B>> foundMappers = new ArrayList<Mapper<A, B>>();
         
         boolean objFactoryBExists = customObjectFactoryForDestinationExists(typeA, typeB);
         boolean objFactoryAExists = customObjectFactoryForDestinationExists(typeB, typeA);
         
-        for (Mapper<?, ?> mapper : mappersRegistry) {
+        for (Mapper<?, ?> mapper : index.candidatesFor(typeA)) {
             if ((mapper.getAType().equals(typeA) && mapper.getBType().equals(typeB))
                     || (mapper.getAType().equals(typeB) && mapper.getBType().equals(typeA))) {
                 foundMappers.add((Mapper<A, B>) mapper);
@@ -901,7 +1171,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
      * getMapperFacade() again.
      */
     public MapperFacade getMapperFacade() {
-        if (!isBuilt) {
+        if (!isBuilt && buildingThread != Thread.currentThread() && !isParallelBuildWorker()) {
             synchronized (mapperFacade) {
                 if (!isBuilt) {
                     build();
@@ -926,8 +1196,9 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
             }
         }
         localCache.put(sourceType, objectFactory);
+        registeredMapperIndex = null;
         if (isBuilding || isBuilt) {
-            mapperFacade.factoryModified(this);
+            factoryModified();
         }
     }
     
@@ -1066,66 +1337,122 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         ObjectFactory<T> result = lookupExistingObjectFactory(targetType, sourceType, context);
         
         if (result == null) {
-            // Check if we can use default constructor...
-            synchronized (this) {
-                if (!targetType.isConcrete()) {
-                    targetType = (Type<T>) resolveConcreteType(targetType, targetType);
+            if (!isBuilt || Thread.holdsLock(this)) {
+                synchronized (this) {
+                    result = generateObjectFactory(destinationType, sourceType, context);
                 }
-                if (targetType == null) {
-                    throw new IllegalStateException(String.format(
-                            "Cannot create ObjectFactory for \n\t destinationType = %s\n\t sourceType = %s",
-                            destinationType,
-                            sourceType));
+            } else {
+                ConcurrentHashMap<Type<?>, Generation<ObjectFactory<?>>> generations = objectFactoryGenerations.get(destinationType);
+                if (generations == null) {
+                    generations = new ConcurrentHashMap<Type<?>, Generation<ObjectFactory<?>>>();
+                    ConcurrentHashMap<Type<?>, Generation<ObjectFactory<?>>> existing = objectFactoryGenerations.putIfAbsent(destinationType,
+                            generations);
+                    if (existing != null) {
+                        generations = existing;
+                    }
                 }
-                
-                Constructor<?>[] constructors = targetType.getRawType().getDeclaredConstructors();
-                if (useAutoMapping || !isBuilt) {
-                    if (constructors.length == 1 && constructors[0].getParameterTypes().length == 0) {
-                        /*
-                         * Use the default constructor in the case where it is
-                         * the only option
-                         */
-                        result = new DefaultConstructorObjectFactory<T>(targetType.getRawType());
-                    } else {
+                for (;;) {
+                    Generation<ObjectFactory<?>> generation = new Generation<ObjectFactory<?>>();
+                    Generation<ObjectFactory<?>> pending = generations.putIfAbsent(sourceType, generation);
+                    if (pending == null) {
                         try {
-                            result = (ObjectFactory<T>) objectFactoryGenerator.build(targetType, sourceType, context);
-                        } catch (MappingException e) {
-                            for (Constructor<?> c : constructors) {
-                                if (c.getParameterTypes().length == 0) {
-                                    result = new DefaultConstructorObjectFactory<T>(targetType.getRawType());
-                                    break;
-                                }
-                            }
-                            if (result == null) {
-                                throw exceptionUtil.decorate(e);
-                            }
+                            result = generateObjectFactory(destinationType, sourceType, context);
+                            generation.complete(result);
+                        } finally {
+                            generations.remove(sourceType, generation);
+                            generation.release();
                         }
-                    }
-                    
-                    ConcurrentHashMap<Type<? extends Object>, ObjectFactory<? extends Object>> localCache = objectFactoryRegistry.get(targetType);
-                    if (localCache == null) {
-                        localCache = new ConcurrentHashMap<Type<? extends Object>, ObjectFactory<? extends Object>>();
-                        ConcurrentHashMap<Type<? extends Object>, ObjectFactory<? extends Object>> existing = objectFactoryRegistry.putIfAbsent(
-                                targetType, localCache);
-                        if (existing != null) {
-                            localCache = existing;
+                        break;
+                    } else if (pending.isOwnedByCurrentThread() || !pending.beginWait()) {
+                        synchronized (this) {
+                            result = generateObjectFactory(destinationType, sourceType, context);
                         }
+                        break;
+                    } else if (pending.await()) {
+                        result = (ObjectFactory<T>) pending.get();
+                        break;
                     }
-                    
-                    ObjectFactory<T> existing = (ObjectFactory<T>) localCache.putIfAbsent(sourceType, result);
-                    if (existing != null) {
-                        result = existing;
-                    }
-                    
-                } else {
-                    for (Constructor<?> constructor : constructors) {
-                        if (constructor.getParameterTypes().length == 0) {
+                    // the pending generation failed; attempt our own
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generates (and registers) an object factory for the specified types;
+     * this is safe to perform concurrently for distinct types.
+     * 
+     * @param destinationType
+     * @param sourceType
+     * @param context
+     * @return the object factory for the specified types
+     */
+    @SuppressWarnings("unchecked")
+    private <T, S> ObjectFactory<T> generateObjectFactory(final Type<T> destinationType, final Type<S> sourceType, final MappingContext context) {
+        Type<T> targetType = destinationType;
+        ObjectFactory<T> result = null;
+        if (!targetType.isConcrete()) {
+            targetType = (Type<T>) resolveConcreteType(targetType, targetType);
+        }
+        if (targetType == null) {
+            throw new IllegalStateException(String.format(
+                    "Cannot create ObjectFactory for \n\t destinationType = %s\n\t sourceType = %s",
+                    destinationType,
+                    sourceType));
+        }
+        
+        Constructor<?>[] constructors = targetType.getRawType().getDeclaredConstructors();
+        if (useAutoMapping || !isBuilt) {
+            if (constructors.length == 1 && constructors[0].getParameterTypes().length == 0) {
+                /*
+                 * Use the default constructor in the case where it is
+                 * the only option
+                 */
+                result = new DefaultConstructorObjectFactory<T>(targetType.getRawType());
+            } else {
+                try {
+                    result = (ObjectFactory<T>) objectFactoryGenerator.build(targetType, sourceType, context);
+                } catch (MappingException e) {
+                    for (Constructor<?> c : constructors) {
+                        if (c.getParameterTypes().length == 0) {
                             result = new DefaultConstructorObjectFactory<T>(targetType.getRawType());
                             break;
                         }
                     }
+                    if (result == null) {
+                        throw exceptionUtil.decorate(e);
+                    }
+                }
+            }
+            
+            ConcurrentHashMap<Type<? extends Object>, ObjectFactory<? extends Object>> localCache = objectFactoryRegistry.get(targetType);
+            if (localCache == null) {
+                localCache = new ConcurrentHashMap<Type<? extends Object>, ObjectFactory<? extends Object>>();
+                ConcurrentHashMap<Type<? extends Object>, ObjectFactory<? extends Object>> existing = objectFactoryRegistry.putIfAbsent(
+                        targetType, localCache);
+                if (existing != null) {
+                    localCache = existing;
+                }
+            }
+            
+            ObjectFactory<T> existing = (ObjectFactory<T>) localCache.putIfAbsent(sourceType, result);
+            if (existing != null) {
+                result = existing;
+            } else if (isCustomObjectFactory(result)) {
+                /*
+                 * The mappers resolved against the index depend on the custom
+                 * object factories registered
+                 */
+                registeredMapperIndex = null;
+            }
+            
+        } else {
+            for (Constructor<?> constructor : constructors) {
+                if (constructor.getParameterTypes().length == 0) {
+                    result = new DefaultConstructorObjectFactory<T>(targetType.getRawType());
+                    break;
                 }
-                
             }
         }
         return result;
@@ -1278,11 +1605,14 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
                     classMap = classMap.copyWithUsedMappers(discoverUsedMappers(classMap));
                 }
                 GeneratedMapperBase generatedMapper = buildMapper(classMap, /** isAutoGenerated == **/
-                isBuilding, context);
+                isBuilding || LazyGeneratedMapper.isGenerating(), context);
                 
                 buildObjectFactories(classMap, context);
                 initializeUsedMappers(generatedMapper, classMap, context);
-                mapperFacade.factoryModified(this);
+                if (isBuilt) {
+                    updateCycleAnalysis(Collections.singleton(classMap), Collections.<Mapper<?, ?>> emptySet());
+                }
+                factoryModified();
             } finally {
                 contextFactory.release(context);
             }
@@ -1293,13 +1623,22 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         registerClassMap(builder.toClassMap());
     }
     
-    public synchronized void build() {
+    public void build() {
         
-        if (!isBuilding && !isBuilt) {
+        synchronized (this) {
+            awaitBuild();
+            if (isBuilding || isBuilt) {
+                return;
+            }
             isBuilding = true;
-            
-            MappingContext context = contextFactory.getContext();
-            try {
+            buildingThread = Thread.currentThread();
+        }
+        
+        MappingContext context = contextFactory.getContext();
+        compilerStrategy.buildStarted();
+        try {
+            List<ClassMap<?, ?>> classMaps;
+            synchronized (this) {
                 if (useBuiltinConverters) {
                     BuiltinConverters.register(converterFactory);
                 }
@@ -1314,26 +1653,301 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
 
                 buildClassMapRegistry();
 
-                Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers = new HashMap<ClassMap<?, ?>, GeneratedMapperBase>();
-                for (ClassMap<?, ?> classMap : classMapRegistry.values()) {
-                    generatedMappers.put(classMap, buildMapper(classMap, false, context));
+                classMaps = new ArrayList<ClassMap<?, ?>>(classMapRegistry.values());
+                if (lazyBuild || !parallelBuild) {
+                    Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers = new LinkedHashMap<ClassMap<?, ?>, GeneratedMapperBase>();
+                    for (ClassMap<?, ?> classMap : classMaps) {
+                        if (lazyBuild && classMap.getConstructorA() == null && classMap.getConstructorB() == null) {
+                            generatedMappers.put(classMap, buildLazyMapper(classMap));
+                        } else {
+                            generatedMappers.put(classMap, buildMapper(classMap, false, context));
+                        }
+                    }
+                    initializeGeneratedMappers(generatedMappers, context);
+                    classMaps = null;
                 }
-                
-                Set<Entry<ClassMap<?, ?>, GeneratedMapperBase>> generatedMapperEntries = generatedMappers.entrySet();
-                for (Entry<ClassMap<?, ?>, GeneratedMapperBase> generatedMapperEntry : generatedMapperEntries) {
-                    buildObjectFactories(generatedMapperEntry.getKey(), context);
-                    initializeUsedMappers(generatedMapperEntry.getValue(), generatedMapperEntry.getKey(), context);
+            }
+            
+            if (classMaps != null) {
+                /*
+                 * The mappers are generated without holding the lock on this
+                 * factory, which generating them may need; they are then
+                 * registered and wired under the lock
+                 */
+                Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers = buildMappersInParallel(classMaps);
+                synchronized (this) {
+                    for (Entry<ClassMap<?, ?>, GeneratedMapperBase> generatedMapperEntry : generatedMappers.entrySet()) {
+                        registerGeneratedMapper(generatedMapperEntry.getKey(), generatedMapperEntry.getValue());
+                    }
+                    initializeGeneratedMappers(generatedMappers, context);
                 }
-                
-            } finally {
-                contextFactory.release(context);
             }
             
-            isBuilt = true;
-            isBuilding = false;
+        } finally {
+            compilerStrategy.buildCompleted();
+            contextFactory.release(context);
+            /*
+             * As before, a build which failed is not attempted again
+             */
+            synchronized (this) {
+                isBuilt = true;
+                isBuilding = false;
+                buildingThread = null;
+                notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * Waits for the build in progress on another thread, if any, to complete;
+     * the lock on this factory is released while the mappers are generated in
+     * parallel, so that a concurrent caller of {@link #build()} must not
+     * return before the factory is built. A build which is called again from
+     * the building thread, or from one of its parallel build workers, does not
+     * wait.<br>
+     * Must be called while holding the lock on this factory.
+     */
+    private void awaitBuild() {
+        boolean interrupted = false;
+        try {
+            while (isBuilding && buildingThread != Thread.currentThread() && !isParallelBuildWorker()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
     
+    /**
+     * Builds the object factories and wires the used mappers of the mappers
+     * generated on build, then analyzes the cycles of the type graph.
+     * 
+     * @param generatedMappers
+     * @param context
+     */
+    private void initializeGeneratedMappers(Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers, MappingContext context) {
+        for (Entry<ClassMap<?, ?>, GeneratedMapperBase> generatedMapperEntry : generatedMappers.entrySet()) {
+            buildObjectFactories(generatedMapperEntry.getKey(), context);
+            initializeUsedMappers(generatedMapperEntry.getValue(), generatedMapperEntry.getKey(), context);
+        }
+        updateCycleAnalysis();
+    }
+    
+    /**
+     * Registers a LazyGeneratedMapper for the specified class-map, in place of
+     * the generated mapper.
+     * 
+     * @param classMap
+     * @return the registered LazyGeneratedMapper
+     */
+    private GeneratedMapperBase buildLazyMapper(ClassMap<?, ?> classMap) {
+        register(classMap.getAType(), classMap.getBType(), false);
+        register(classMap.getBType(), classMap.getAType(), false);
+        
+        GeneratedMapperBase mapper = new LazyGeneratedMapper(classMap, this);
+        mapper.setMapperFacade(mapperFacade);
+        registerGeneratedMapper(classMap, mapper);
+        return mapper;
+    }
+    
+    /**
+     * Generates the mapper behind a LazyGeneratedMapper; the mapper is
+     * generated with a context of its own, as it may be needed in the midst of
+     * a mapping which holds the current thread's context.
+     * 
+     * @param classMap
+     * @return the generated mapper
+     */
+    GeneratedMapperBase generateLazyMapper(ClassMap<?, ?> classMap) {
+        try {
+            return generateMapper(classMap, false, new MappingContext(contextFactory.getGlobalProperties()));
+        } catch (MappingException e) {
+            e.setSourceType(classMap.getAType());
+            e.setDestinationType(classMap.getBType());
+            throw exceptionUtil.decorate(e);
+        }
+    }
+    
+    /**
+     * Generates the mappers for the specified class-maps on the configured
+     * parallel build executor (the common fork-join pool by default).<br>
+     * Must be called without holding the lock on this factory, since
+     * generating a mapper may need it (to register further class-maps, for
+     * instance); the generated mappers are not registered.
+     * 
+     * @param classMaps
+     * @return the generated mappers, by class-map, in the order of the
+     *         class-maps
+     */
+    private Map<ClassMap<?, ?>, GeneratedMapperBase> buildMappersInParallel(List<ClassMap<?, ?>> classMaps) {
+        
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executor = parallelBuildExecutor != null ? parallelBuildExecutor : ForkJoinPool.commonPool();
+        List<Future<GeneratedMapperBase>> tasks = new ArrayList<Future<GeneratedMapperBase>>(classMaps.size());
+        for (final ClassMap<?, ?> classMap : classMaps) {
+            tasks.add(executor.submit(new Callable<GeneratedMapperBase>() {
+                public GeneratedMapperBase call() {
+                    /*
+                     * Generated classes are defined relative to the context
+                     * class-loader of the building thread
+                     */
+                    Thread thread = Thread.currentThread();
+                    ClassLoader previousClassLoader = thread.getContextClassLoader();
+                    thread.setContextClassLoader(contextClassLoader);
+                    boolean isWorker = parallelBuildWorkers.add(thread);
+                    MappingContext context = contextFactory.getContext();
+                    try {
+                        return generateMapper(classMap, false, context);
+                    } finally {
+                        contextFactory.release(context);
+                        if (isWorker) {
+                            parallelBuildWorkers.remove(thread);
+                        }
+                        thread.setContextClassLoader(previousClassLoader);
+                    }
+                }
+            }));
+        }
+        
+        boolean interrupted = false;
+        Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers = new LinkedHashMap<ClassMap<?, ?>, GeneratedMapperBase>();
+        try {
+            for (int i = 0, len = classMaps.size(); i < len; ++i) {
+                GeneratedMapperBase mapper = null;
+                while (mapper == null) {
+                    try {
+                        mapper = tasks.get(i).get();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof RuntimeException) {
+                            throw (RuntimeException) e.getCause();
+                        } else if (e.getCause() instanceof Error) {
+                            throw (Error) e.getCause();
+                        }
+                        throw exceptionUtil.newMappingException("Could not generate the mapper for " + classMaps.get(i), e.getCause());
+                    }
+                }
+                generatedMappers.put(classMaps.get(i), mapper);
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return generatedMappers;
+    }
+    
+    /**
+     * @return true if the current thread generates mappers on behalf of a
+     *         build in progress, in which case it must not wait for that build
+     *         to complete
+     */
+    private boolean isParallelBuildWorker() {
+        return !parallelBuildWorkers.isEmpty() && parallelBuildWorkers.contains(Thread.currentThread());
+    }
+    
+    /**
+     * Analyzes the type graph formed by the registered class-maps to find the
+     * types which can never take part in a cycle (see {@link CycleAnalyzer}),
+     * and updates the flags returned by {@link #getAcyclicFlag(Type)}
+     * accordingly.
+     */
+    protected synchronized void updateCycleAnalysis() {
+        if (!analyzeCycles) {
+            return;
+        }
+        List<Mapper<?, ?>> customMappers = new ArrayList<Mapper<?, ?>>();
+        for (Mapper<?, ?> mapper : mappersRegistry) {
+            if (isCustomMapper(mapper)) {
+                customMappers.add(mapper);
+            }
+        }
+        cycleAnalyzer = new CycleAnalyzer(converterFactory);
+        Set<Type<?>> acyclic = cycleAnalyzer.findAcyclicTypes(classMapRegistry.values(), customMappers);
+        acyclicTypes.retainAll(acyclic);
+        acyclicTypes.addAll(acyclic);
+        for (Entry<Type<?>, AtomicBoolean> flag : acyclicFlags.entrySet()) {
+            flag.getValue().set(acyclicTypes.contains(flag.getKey()));
+        }
+    }
+    
+    /**
+     * Updates the cycle analysis performed on build with class-maps and
+     * Mappers registered, or generated, afterwards; only the types which can
+     * reach those they map are analyzed again.
+     * 
+     * @param classMaps
+     *            the class-maps registered since the analysis
+     * @param mappers
+     *            the custom Mappers registered since the analysis
+     */
+    protected synchronized void updateCycleAnalysis(Collection<? extends ClassMap<?, ?>> classMaps, Collection<? extends Mapper<?, ?>> mappers) {
+        if (!analyzeCycles) {
+            return;
+        }
+        if (cycleAnalyzer == null) {
+            updateCycleAnalysis();
+            return;
+        }
+        for (Entry<Type<?>, Boolean> change : cycleAnalyzer.update(classMaps, mappers).entrySet()) {
+            Type<?> type = change.getKey();
+            boolean acyclic = change.getValue();
+            if (acyclic) {
+                acyclicTypes.add(type);
+            } else {
+                acyclicTypes.remove(type);
+            }
+            AtomicBoolean flag = acyclicFlags.get(type);
+            if (flag != null) {
+                flag.set(acyclic);
+            }
+        }
+    }
+    
+    private static boolean isCustomMapper(Mapper<?, ?> mapper) {
+        return !(mapper instanceof GeneratedMapperBase) && !(mapper instanceof MultipleMapperWrapper);
+    }
+    
+    /**
+     * @param sourceType
+     * @return true if the cycle analysis performed on build found that
+     *         instances of the specified type can never be reached again while
+     *         they are being mapped
+     */
+    public boolean isAcyclic(Type<?> sourceType) {
+        return acyclicTypes.contains(sourceType);
+    }
+    
+    /**
+     * Returns a flag which is kept set for as long as the cycle analysis finds
+     * the specified type to be acyclic; mapping strategies hold on to this flag
+     * so that they follow changes caused by class-maps which are registered, or
+     * generated, after the build.
+     * 
+     * @param sourceType
+     * @return the acyclic flag for the specified type
+     */
+    public AtomicBoolean getAcyclicFlag(Type<?> sourceType) {
+        AtomicBoolean flag = acyclicFlags.get(sourceType);
+        if (flag == null) {
+            synchronized (this) {
+                flag = acyclicFlags.get(sourceType);
+                if (flag == null) {
+                    flag = new AtomicBoolean(acyclicTypes.contains(sourceType));
+                    acyclicFlags.put(sourceType, flag);
+                }
+            }
+        }
+        return flag;
+    }
+    
     public Set<ClassMap<Object, Object>> lookupUsedClassMap(MapperKey mapperKey) {
         Set<ClassMap<Object, Object>> usedClassMapSet = usedMapperMetadataRegistry.get(mapperKey);
         if (usedClassMapSet == null) {
@@ -1494,13 +2108,23 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         }
     }
     
-    @SuppressWarnings("unchecked")
     private GeneratedMapperBase buildMapper(ClassMap<?, ?> classMap, boolean isAutoGenerated, MappingContext context) {
-        
+        GeneratedMapperBase mapper = generateMapper(classMap, isAutoGenerated, context);
+        registerGeneratedMapper(classMap, mapper);
+        return mapper;
+    }
+
+    /**
+     * Generates the mapper for the specified class-map, without adding it to
+     * the mappers registry; this is safe to perform concurrently for distinct
+     * class-maps.
+     */
+    @SuppressWarnings("unchecked")
+    private GeneratedMapperBase generateMapper(ClassMap<?, ?> classMap, boolean isAutoGenerated, MappingContext context) {
+
         register(classMap.getAType(), classMap.getBType(), isAutoGenerated);
         register(classMap.getBType(), classMap.getAType(), isAutoGenerated);
-        
-        final MapperKey mapperKey = new MapperKey(classMap.getAType(), classMap.getBType());
+
         final GeneratedMapperBase mapper = mapperGenerator.build(classMap, context);
         mapper.setMapperFacade(mapperFacade);
         mapper.setFromAutoMapping(isAutoGenerated);
@@ -1508,11 +2132,14 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
             final Mapper<Object, Object> customizedMapper = (Mapper<Object, Object>) classMap.getCustomizedMapper();
             mapper.setCustomMapper(customizedMapper);
         }
+        return mapper;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void registerGeneratedMapper(ClassMap<?, ?> classMap, GeneratedMapperBase mapper) {
         mappersRegistry.remove(mapper);
         mappersRegistry.add(mapper);
-        classMapRegistry.put(mapperKey, (ClassMap<Object, Object>) classMap);
-        
-        return mapper;
+        classMapRegistry.put(new MapperKey(classMap.getAType(), classMap.getBType()), (ClassMap<Object, Object>) classMap);
     }
     
     /**
@@ -1528,7 +2155,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         
         Set<Type<?>> destinationSet = registry.get(sourceType);
         if (destinationSet == null) {
-            destinationSet = new TreeSet<Type<?>>();
+            destinationSet = new ConcurrentSkipListSet<Type<?>>();
             Set<Type<?>> existing = registry.putIfAbsent(sourceType, destinationSet);
             if (existing != null) {
                 destinationSet = existing;
@@ -1613,8 +2240,11 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         mapper.setMapperFacade(this.mapperFacade);
         register(mapper.getAType(), mapper.getBType(), false);
         register(mapper.getBType(), mapper.getAType(), false);
+        if (isBuilt && isCustomMapper(mapper)) {
+            updateCycleAnalysis(Collections.<ClassMap<?, ?>> emptySet(), Collections.singleton(mapper));
+        }
         if (isBuilding || isBuilt) {
-            mapperFacade.factoryModified(this);
+            factoryModified();
         }
     }
     
@@ -1629,10 +2259,44 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
      * ma.glasnost.orika.MapperFacade#dedicatedMapperFor(ma.glasnost.orika.metadata
      * .Type, ma.glasnost.orika.metadata.Type, boolean)
      */
+    @SuppressWarnings("unchecked")
     public <S, D> BoundMapperFacade<S, D> getMapperFacade(Type<S> sourceType, Type<D> destinationType, boolean containsCycles) {
         getMapperFacade();
-        MappingContextFactory ctxFactory = containsCycles ? contextFactory : nonCyclicContextFactory;
-        return new DefaultBoundMapperFacade<S, D>(this, ctxFactory, sourceType, destinationType);
+        ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, BoundMapperFacade<?, ?>>> registry = containsCycles ? boundMapperFacades
+                : nonCyclicBoundMapperFacades;
+        ConcurrentHashMap<Type<?>, BoundMapperFacade<?, ?>> facades = registry.get(sourceType);
+        if (facades == null) {
+            facades = new ConcurrentHashMap<Type<?>, BoundMapperFacade<?, ?>>();
+            ConcurrentHashMap<Type<?>, BoundMapperFacade<?, ?>> existing = registry.putIfAbsent(sourceType, facades);
+            if (existing != null) {
+                facades = existing;
+            }
+        }
+        BoundMapperFacade<S, D> facade = (BoundMapperFacade<S, D>) facades.get(destinationType);
+        if (facade == null) {
+            MappingContextFactory ctxFactory = containsCycles ? contextFactory : nonCyclicContextFactory;
+            facade = new DefaultBoundMapperFacade<S, D>(this, ctxFactory, sourceType, destinationType);
+            BoundMapperFacade<S, D> existing = (BoundMapperFacade<S, D>) facades.putIfAbsent(destinationType, facade);
+            if (existing != null) {
+                facade = existing;
+            }
+        }
+        return facade;
+    }
+    
+    /**
+     * Notifies the MapperFacade that this factory has been modified; once the
+     * factory is built, the canonical BoundMapperFacade instances (which may
+     * have resolved strategies by now) are also dropped, so that facades
+     * obtained from now on resolve their strategies afresh. Facades already
+     * handed out keep theirs.
+     */
+    protected void factoryModified() {
+        if (isBuilt) {
+            boundMapperFacades.clear();
+            nonCyclicBoundMapperFacades.clear();
+        }
+        mapperFacade.factoryModified(this);
     }
     
     /*
@@ -1712,6 +2376,30 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         for (Entry<java.lang.reflect.Type, Type<?>> entry : concreteTypeRegistry.entrySet()) {
             out.append("\n  [").append(entry.getKey()).append("] : ").append(entry.getValue());
         }
+        out.append(DIVIDER);
+        if (analyzeCycles) {
+            Set<Type<?>> acyclic = acyclicTypes;
+            out.append("\nAcyclic types (mapped without identity caching): ").append(acyclic.size());
+            for (Type<?> type : acyclic) {
+                out.append("\n  ").append(type);
+            }
+        } else {
+            out.append("\nAcyclic types: cycle analysis disabled");
+        }
+        out.append(DIVIDER);
+        out.append("\nBound mapper facades: ")
+                .append(countBoundMapperFacades(boundMapperFacades))
+                .append(" cyclic, ")
+                .append(countBoundMapperFacades(nonCyclicBoundMapperFacades))
+                .append(" non-cyclic");
+    }
+    
+    private static int countBoundMapperFacades(Map<Type<?>, ConcurrentHashMap<Type<?>, BoundMapperFacade<?, ?>>> registry) {
+        int count = 0;
+        for (Map<Type<?>, BoundMapperFacade<?, ?>> facades : registry.values()) {
+            count += facades.size();
+        }
+        return count;
     }
     
     /**
@@ -1742,14 +2430,14 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         public <S, D> void registerConverter(Converter<S, D> converter) {
             delegate.registerConverter(converter);
             if (isBuilding || isBuilt) {
-                mapperFacade.factoryModified(DefaultMapperFactory.this);
+                factoryModified();
             }
         }
         
         public <S, D> void registerConverter(String converterId, Converter<S, D> converter) {
             delegate.registerConverter(converterId, converter);
             if (isBuilding || isBuilt) {
-                mapperFacade.factoryModified(DefaultMapperFactory.this);
+                factoryModified();
             }
         }
         
@@ -1762,4 +2450,95 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         }
     }
     
+    /**
+     * A generation in progress, on which threads requesting the same mapper or
+     * object factory wait until the generating thread has completed it.<br>
+     * A thread may own several generations while it waits for another one
+     * (the generation of a mapper can look up other mappers); a thread only
+     * waits if the owner of that generation is not, directly or through the
+     * generations other threads wait for, waiting for the current thread, and
+     * otherwise generates under the lock of the factory instead.
+     * 
+     * @param <T>
+     *            the type of the generated instance
+     */
+    private static final class Generation<T> {
+        
+        /*
+         * The generation each thread is waiting for
+         */
+        private static final ConcurrentHashMap<Thread, Generation<?>> WAITING = new ConcurrentHashMap<Thread, Generation<?>>();
+        
+        private final Thread owner = Thread.currentThread();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile T result;
+        private volatile boolean completed;
+        
+        boolean isOwnedByCurrentThread() {
+            return owner == Thread.currentThread();
+        }
+        
+        void complete(T result) {
+            this.result = result;
+            this.completed = true;
+        }
+        
+        void release() {
+            done.countDown();
+        }
+        
+        /**
+         * Records that the current thread is about to wait for this
+         * generation, unless the owners of the generations it would
+         * transitively wait for include the current thread; the thread is
+         * recorded before the check, so that of two threads about to wait for
+         * each other, at least one of them sees the cycle.
+         * 
+         * @return true if the current thread may {@link #await()} this
+         *         generation, false if waiting would deadlock
+         */
+        boolean beginWait() {
+            final Thread current = Thread.currentThread();
+            WAITING.put(current, this);
+            Set<Generation<?>> visited = new HashSet<Generation<?>>();
+            for (Generation<?> generation = this; generation != null && visited.add(generation); generation = WAITING.get(generation.owner)) {
+                if (generation.owner == current) {
+                    WAITING.remove(current, this);
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * Waits (uninterruptibly) for the generation to be released; must
+         * follow a successful {@link #beginWait()}.
+         * 
+         * @return true if the generation completed successfully
+         */
+        boolean await() {
+            boolean interrupted = false;
+            try {
+                for (;;) {
+                    try {
+                        done.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                WAITING.remove(Thread.currentThread(), this);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return completed;
+        }
+        
+        T get() {
+            return result;
+        }
+    }
+    
 }
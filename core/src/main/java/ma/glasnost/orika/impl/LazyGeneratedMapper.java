@@ -0,0 +1,125 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.metadata.ClassMap;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+/**
+ * LazyGeneratedMapper stands in the mappers registry for the mapper of a
+ * class-map registered with a DefaultMapperFactory which is built lazily. It
+ * is registered and wired to its used mappers on build, just as the generated
+ * mapper would be, but the actual mapper is only generated (and compiled) the
+ * first time it is looked up or used; it then takes on the used mappers wired
+ * into this one.
+ *
+ */
+final class LazyGeneratedMapper extends GeneratedMapperBase {
+
+    /**
+     * Set while the current thread generates the mapper behind a
+     * LazyGeneratedMapper
+     */
+    private static final ThreadLocal<Boolean> GENERATING = new ThreadLocal<Boolean>();
+
+    private final ClassMap<?, ?> classMap;
+    private final DefaultMapperFactory mapperFactory;
+    private volatile GeneratedMapperBase delegate;
+
+    /**
+     * @param classMap
+     *            the class-map for which the mapper is to be generated
+     * @param mapperFactory
+     *            the mapper factory which generates the mapper
+     */
+    LazyGeneratedMapper(ClassMap<?, ?> classMap, DefaultMapperFactory mapperFactory) {
+        this.classMap = classMap;
+        this.mapperFactory = mapperFactory;
+        setAType(classMap.getAType());
+        setBType(classMap.getBType());
+        setFavorsExtension(classMap.favorsExtension());
+    }
+
+    /**
+     * @return true if the current thread is generating the mapper behind a
+     *         LazyGeneratedMapper
+     */
+    static boolean isGenerating() {
+        return GENERATING.get() != null;
+    }
+
+    /**
+     * Returns the generated mapper, generating it first if need be.
+     *
+     * @return the generated mapper
+     */
+    GeneratedMapperBase getDelegate() {
+        GeneratedMapperBase mapper = delegate;
+        if (mapper == null) {
+            synchronized (this) {
+                mapper = delegate;
+                if (mapper == null) {
+                    boolean outermost = !isGenerating();
+                    GENERATING.set(Boolean.TRUE);
+                    try {
+                        mapper = mapperFactory.generateLazyMapper(classMap);
+                    } finally {
+                        if (outermost) {
+                            GENERATING.remove();
+                        }
+                    }
+                    mapper.setUsedMappers(getUsedMappers());
+                    delegate = mapper;
+                }
+            }
+        }
+        return mapper;
+    }
+
+    @Override
+    public void setUsedMappers(Mapper<Object, Object>[] usedMappers) {
+        super.setUsedMappers(usedMappers);
+        GeneratedMapperBase mapper = delegate;
+        if (mapper != null) {
+            mapper.setUsedMappers(usedMappers);
+        }
+    }
+
+    @Override
+    public void mapAtoB(Object a, Object b, MappingContext context) {
+        getDelegate().mapAtoB(a, b, context);
+    }
+
+    @Override
+    public void mapBtoA(Object b, Object a, MappingContext context) {
+        getDelegate().mapBtoA(b, a, context);
+    }
+
+    @Override
+    public String toString() {
+        GeneratedMapperBase mapper = delegate;
+        if (mapper != null) {
+            return mapper.toString();
+        }
+        return "LazyGeneratedMapper<" + TypeFactory.nameOf(getAType(), getBType()) + ", " + TypeFactory.nameOf(getBType(), getAType())
+                + "> { not generated yet }";
+    }
+}
@@ -35,6 +35,9 @@ import java.lang.reflect.Method;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static ma.glasnost.orika.StateReporter.DIVIDER;
 import static ma.glasnost.orika.StateReporter.humanReadableSizeInMemory;
@@ -49,6 +52,18 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     protected final UnenhanceStrategy unenhanceStrategy;
     private final UnenhanceStrategy userUnenhanceStrategy;
     private final ConcurrentHashMap<Key, MappingStrategy> strategyCache = new ConcurrentHashMap<>();
+    /*
+     * A front for strategyCache which resolves strategies without allocating
+     * a Key: each raw source class is given an index (by a ClassValue, which
+     * holds nothing but the index, so that it cannot pin this facade) into a
+     * table of small copy-on-write arrays of {sourceType, destinationType,
+     * strategy} entries, matched by identity.
+     */
+    private final SourceClassIndex sourceClassIndex = new SourceClassIndex();
+    private final Object classStrategiesLock = new Object();
+    private volatile AtomicReferenceArray<Object[]> classStrategies = new AtomicReferenceArray<>(INITIAL_CLASS_STRATEGIES);
+    private static final int INITIAL_CLASS_STRATEGIES = 32;
+    private static final int MAX_STRATEGIES_PER_CLASS = 16;
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final ExceptionUtility exceptionUtil;
     
@@ -143,8 +158,17 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     public <S, D> MappingStrategy resolveMappingStrategy(final S sourceObject, final java.lang.reflect.Type initialSourceType,
             final java.lang.reflect.Type initialDestinationType, final boolean mapInPlace, final MappingContext context) {
         
-        Key key = new Key(getClass(sourceObject), initialSourceType, initialDestinationType, mapInPlace);
-        MappingStrategy strategy = strategyCache.get(key);
+        final Class<?> sourceClass = getClass(sourceObject);
+        MappingStrategy strategy = cachedStrategy(sourceClass, initialSourceType, initialDestinationType, mapInPlace);
+        Key key = null;
+        
+        if (strategy == null) {
+            key = new Key(sourceClass, initialSourceType, initialDestinationType, mapInPlace);
+            strategy = strategyCache.get(key);
+            if (strategy != null) {
+                cacheStrategy(sourceClass, initialSourceType, initialDestinationType, mapInPlace, strategy);
+            }
+        }
         
         if (strategy == null) {
             
@@ -176,6 +200,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
                 
                 strategyRecorder.setResolvedDestinationType(resolvedDestinationType);
                 strategyRecorder.setResolvedMapper(resolveMapper(resolvedSourceType, resolvedDestinationType, context));
+                strategyRecorder.setAcyclic(acyclicFlag(resolvedSourceType));
                 if (!mapInPlace) {
                     strategyRecorder.setResolvedObjectFactory(
                             mapperFactory.lookupObjectFactory(resolvedDestinationType, resolvedSourceType, context));
@@ -189,6 +214,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
             if (existing != null) {
             	strategy = existing;
             }
+            cacheStrategy(sourceClass, initialSourceType, initialDestinationType, mapInPlace, strategy);
         }
         
         /*
@@ -202,6 +228,76 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
         return strategy;
     }
 
+    /**
+     * Looks up a strategy previously resolved for the given arguments of
+     * {@link #resolveMappingStrategy(Object, java.lang.reflect.Type, java.lang.reflect.Type, boolean, MappingContext)}
+     * , without allocating.
+     * 
+     * @return the cached strategy, or null if none was found
+     */
+    private MappingStrategy cachedStrategy(final Class<?> sourceClass, final java.lang.reflect.Type sourceType,
+            final java.lang.reflect.Type destinationType, final boolean mapInPlace) {
+        final int slot = (sourceClassIndex.get(sourceClass) << 1) | (mapInPlace ? 1 : 0);
+        final AtomicReferenceArray<Object[]> table = classStrategies;
+        if (slot < table.length()) {
+            final Object[] entries = table.get(slot);
+            if (entries != null) {
+                for (int i = 0; i < entries.length; i += 3) {
+                    if (entries[i + 1] == destinationType && entries[i] == sourceType) {
+                        return (MappingStrategy) entries[i + 2];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Records a resolved strategy for lookup by
+     * {@link #cachedStrategy(Class, java.lang.reflect.Type, java.lang.reflect.Type, boolean)}
+     * ; once a source class has {@link #MAX_STRATEGIES_PER_CLASS} entries,
+     * further strategies are only kept in the strategyCache.
+     */
+    private void cacheStrategy(final Class<?> sourceClass, final java.lang.reflect.Type sourceType,
+            final java.lang.reflect.Type destinationType, final boolean mapInPlace, final MappingStrategy strategy) {
+        final int slot = (sourceClassIndex.get(sourceClass) << 1) | (mapInPlace ? 1 : 0);
+        synchronized (classStrategiesLock) {
+            AtomicReferenceArray<Object[]> table = classStrategies;
+            if (slot >= table.length()) {
+                int length = table.length();
+                while (length <= slot) {
+                    length <<= 1;
+                }
+                AtomicReferenceArray<Object[]> grown = new AtomicReferenceArray<>(length);
+                for (int i = 0; i < table.length(); ++i) {
+                    grown.set(i, table.get(i));
+                }
+                classStrategies = table = grown;
+            }
+            final Object[] entries = table.get(slot);
+            final int size = entries == null ? 0 : entries.length;
+            if (size < MAX_STRATEGIES_PER_CLASS * 3) {
+                final Object[] updated = entries == null ? new Object[3] : Arrays.copyOf(entries, size + 3);
+                updated[size] = sourceType;
+                updated[size + 1] = destinationType;
+                updated[size + 2] = strategy;
+                table.set(slot, updated);
+            }
+        }
+    }
+    
+    /**
+     * Assigns each class a small, stable index
+     */
+    private static final class SourceClassIndex extends ClassValue<Integer> {
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return nextIndex.getAndIncrement();
+        }
+    }
+    
     private <S, D> Type<? extends D> resolveDestinationType(MappingContext context, Type<S> sourceType, Type<D> destinationType, Type<S> resolvedSourceType) {
         Type<? extends D> resolvedDestinationType = mapperFactory.lookupConcreteDestinationType(resolvedSourceType, destinationType, context);
         if (resolvedDestinationType == null) {
@@ -270,6 +366,16 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
         }
     }
     
+    /**
+     * @param sourceType
+     * @return the flag which is set while the mapper factory finds that
+     *         instances of the source type can never be reached again while
+     *         being mapped, or null if the factory does not analyze cycles
+     */
+    private AtomicBoolean acyclicFlag(final Type<?> sourceType) {
+        return mapperFactory instanceof DefaultMapperFactory ? ((DefaultMapperFactory) mapperFactory).getAcyclicFlag(sourceType) : null;
+    }
+    
     /**
      * Resolves whether the given mapping operation can use copy-by-reference
      * semantics; should be true if one of the following is true:
@@ -1008,6 +1114,9 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     }
     
     public void factoryModified(MapperFactory factory) {
+        synchronized (classStrategiesLock) {
+            classStrategies = new AtomicReferenceArray<>(classStrategies.length());
+        }
         strategyCache.clear();
     }
     
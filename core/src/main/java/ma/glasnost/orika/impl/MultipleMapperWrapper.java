@@ -22,9 +22,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import ma.glasnost.orika.Mapper;
 import ma.glasnost.orika.MappingContext;
@@ -42,15 +41,50 @@ import ma.glasnost.orika.util.SortedCollection;
  * @see <a href="https://github.com/orika-mapper/orika/issues/176">https://github.com/orika-mapper/orika/issues/176</a>
  */
 public final class MultipleMapperWrapper extends GeneratedMapperBase {
+    
+    private static final int INITIAL_DISPATCH_CAPACITY = 8;
+    
+    /*
+     * Assigns each class a small, stable index; the ClassValue keeps only the
+     * index, so that the dispatch tables hold no reference to the classes
+     */
+    private static final ClassValue<Integer> CLASS_INDEX = new ClassValue<Integer>() {
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return nextIndex.incrementAndGet();
+        }
+    };
+    
     private Collection<Mapper<Object, Object>> mappersRegistry;
-    private Map<MapperKey, Mapper<Object, Object>> mappersCache;
+    /*
+     * Dispatch table from the classes of the objects being mapped to the
+     * Mapper chosen for them, keyed by the indexes of both classes; it is
+     * copied (under lock) whenever a pair is added and then published as a
+     * whole, so that lookups take neither a lock nor any allocation
+     */
+    private volatile DispatchTable dispatchTable = new DispatchTable(INITIAL_DISPATCH_CAPACITY);
+    private int dispatchSize;
+    
+    /**
+     * An open-addressing table of class-index pairs and their Mappers
+     */
+    private static final class DispatchTable {
+        private final long[] keys;
+        private final Mapper<?, ?>[] mappers;
+        
+        private DispatchTable(int capacity) {
+            keys = new long[capacity];
+            mappers = new Mapper<?, ?>[capacity];
+        }
+    }
     
     public MultipleMapperWrapper(Type<Object> typeA, Type<Object> typeB, List<Mapper<Object, Object>> mappers) {
         super();
         setAType(typeA);
         setBType(typeB);
         mappersRegistry = new SortedCollection<Mapper<Object, Object>>(mappers, Ordering.MAPPER);
-        mappersCache = new WeakHashMap<MapperKey, Mapper<Object, Object>>();
     }
     
     @Override
@@ -75,12 +109,68 @@ public final class MultipleMapperWrapper extends GeneratedMapperBase {
         return new MapperKey(aType, bType);
     }
     
+    private static long key(Class<?> aClass, Class<?> bClass) {
+        return ((long) CLASS_INDEX.get(aClass) << 32) | CLASS_INDEX.get(bClass);
+    }
+    
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Mapper<Object, Object> dispatch(long key) {
+        final DispatchTable table = dispatchTable;
+        final long[] keys = table.keys;
+        final int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        long k;
+        while ((k = keys[i]) != 0L) {
+            if (k == key) {
+                return (Mapper<Object, Object>) table.mappers[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+    
+    private synchronized void addDispatch(long key, Mapper<Object, Object> mapper) {
+        if (dispatch(key) != null) {
+            return;
+        }
+        final DispatchTable current = dispatchTable;
+        int capacity = current.keys.length;
+        if ((dispatchSize + 1) * 2 > capacity) {
+            capacity <<= 1;
+        }
+        final DispatchTable table = new DispatchTable(capacity);
+        for (int j = 0; j < current.keys.length; ++j) {
+            if (current.keys[j] != 0L) {
+                insert(table, current.keys[j], current.mappers[j]);
+            }
+        }
+        insert(table, key, mapper);
+        ++dispatchSize;
+        dispatchTable = table;
+    }
+    
+    private static void insert(DispatchTable table, long key, Mapper<?, ?> mapper) {
+        final int mask = table.keys.length - 1;
+        int i = hash(key) & mask;
+        while (table.keys[i] != 0L) {
+            i = (i + 1) & mask;
+        }
+        table.keys[i] = key;
+        table.mappers[i] = mapper;
+    }
+    
     private Mapper<Object, Object> getMapperFor(Object a, Object b) {
-        MapperKey mapperKey = createMapperKey(a, b);
-        Mapper<Object, Object> mapper = mappersCache.get(mapperKey);
+        final long key = key(a.getClass(), b.getClass());
+        Mapper<Object, Object> mapper = dispatch(key);
         if (mapper != null) {
             return mapper;
         }
+        MapperKey mapperKey = createMapperKey(a, b);
         mapper = findMapperFor(mapperKey);
         if (mapper == null) {
             StringBuilder sb = new StringBuilder();
@@ -98,7 +188,7 @@ public final class MultipleMapperWrapper extends GeneratedMapperBase {
             }
             throw new IllegalStateException(sb.toString());
         }
-        mappersCache.put(mapperKey, mapper);
+        addDispatch(key, mapper);
         return mapper;
     }
     
@@ -0,0 +1,214 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * RegisteredMapperIndex is an immutable index over a snapshot of the mappers
+ * registered with a DefaultMapperFactory, used to look up registered mappers
+ * without scanning the whole registry.<br>
+ * <br>
+ * Any mapper able to map a pair of types has either its A type or its B type
+ * assignable from the first type of the pair, so the mappers are indexed by
+ * the raw classes of their A and B types; the candidates for a pair are those
+ * indexed under the raw class of its first type or any of its supertypes
+ * (including Object and, for arrays, the arrays of the supertypes of the
+ * component type), returned in registry order. The mapper resolved for each exact pair of
+ * types is also remembered, for as long as the index is current.
+ *
+ */
+final class RegisteredMapperIndex {
+
+    /**
+     * Stands for "no mapper" among the resolved mappers
+     */
+    static final Object NONE = new Object();
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final int modificationCount;
+    private final Mapper<Object, Object>[] mappers;
+    private final Map<Class<?>, int[]> positionsByRawType;
+    private final ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, Object>> resolved = new ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, Object>>();
+    private final ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, Object>> resolvedWithAutoGenerated = new ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, Object>>();
+
+    /**
+     * @param registry
+     *            the registered mappers, in registry order
+     * @param modificationCount
+     *            the modification count of the registry when it was read
+     */
+    @SuppressWarnings("unchecked")
+    RegisteredMapperIndex(List<Mapper<Object, Object>> registry, int modificationCount) {
+        this.modificationCount = modificationCount;
+        this.mappers = registry.toArray(new Mapper[registry.size()]);
+
+        Map<Class<?>, List<Integer>> positions = new HashMap<Class<?>, List<Integer>>();
+        for (int i = 0; i < mappers.length; ++i) {
+            index(positions, mappers[i].getAType(), i);
+            index(positions, mappers[i].getBType(), i);
+        }
+        this.positionsByRawType = new HashMap<Class<?>, int[]>(positions.size() * 2);
+        for (Map.Entry<Class<?>, List<Integer>> entry : positions.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] array = new int[list.size()];
+            for (int i = 0; i < array.length; ++i) {
+                array[i] = list.get(i);
+            }
+            positionsByRawType.put(entry.getKey(), array);
+        }
+    }
+
+    private static void index(Map<Class<?>, List<Integer>> positions, Type<?> type, int position) {
+        if (type == null) {
+            return;
+        }
+        List<Integer> list = positions.get(type.getRawType());
+        if (list == null) {
+            list = new ArrayList<Integer>(2);
+            positions.put(type.getRawType(), list);
+        }
+        if (list.isEmpty() || list.get(list.size() - 1) != position) {
+            list.add(position);
+        }
+    }
+
+    /**
+     * @return the modification count of the registry this index was built
+     *         from
+     */
+    int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Returns the registered mappers which might be able to map the specified
+     * type (in either direction), in registry order.
+     *
+     * @param type
+     *            the type to be mapped
+     * @return the candidate mappers
+     */
+    List<Mapper<Object, Object>> candidatesFor(Type<?> type) {
+        if (type == null) {
+            return Collections.emptyList();
+        }
+        int[] merged = NO_POSITIONS;
+        int count = 0;
+        for (Class<?> rawType : rawSupertypes(type.getRawType(), new LinkedHashSet<Class<?>>())) {
+            int[] positions = positionsByRawType.get(rawType);
+            if (positions != null) {
+                if (count + positions.length > merged.length) {
+                    merged = Arrays.copyOf(merged, Math.max(count + positions.length, merged.length * 2));
+                }
+                System.arraycopy(positions, 0, merged, count, positions.length);
+                count += positions.length;
+            }
+        }
+        Arrays.sort(merged, 0, count);
+        List<Mapper<Object, Object>> candidates = new ArrayList<Mapper<Object, Object>>(count);
+        for (int i = 0; i < count; ++i) {
+            if (i == 0 || merged[i] != merged[i - 1]) {
+                candidates.add(mappers[merged[i]]);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Collects the classes which the specified class is assignable to: its
+     * superclasses and interfaces, Object (which interfaces do not extend),
+     * and for an array of references the arrays of the supertypes of its
+     * component type.
+     * 
+     * @param rawType
+     * @param result
+     * @return the result set, in which the supertypes were added
+     */
+    private static Set<Class<?>> rawSupertypes(Class<?> rawType, Set<Class<?>> result) {
+        if (rawType != null && result.add(rawType)) {
+            rawSupertypes(rawType.getSuperclass(), result);
+            for (Class<?> iface : rawType.getInterfaces()) {
+                rawSupertypes(iface, result);
+            }
+            if (rawType.isArray() && !rawType.getComponentType().isPrimitive()) {
+                for (Class<?> componentSupertype : rawSupertypes(rawType.getComponentType(), new LinkedHashSet<Class<?>>())) {
+                    rawSupertypes(Array.newInstance(componentSupertype, 0).getClass(), result);
+                }
+            }
+            if (!rawType.isPrimitive()) {
+                result.add(Object.class);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param typeA
+     * @param typeB
+     * @param includeAutoGeneratedMappers
+     * @return the mapper previously resolved for the exact pair of types, or
+     *         {@link #NONE} if none was found, or null if the pair has not been
+     *         resolved against this index
+     */
+    Object getResolved(Type<?> typeA, Type<?> typeB, boolean includeAutoGeneratedMappers) {
+        Map<Type<?>, Object> byTypeB = (includeAutoGeneratedMappers ? resolvedWithAutoGenerated : resolved).get(typeA);
+        return byTypeB == null ? null : byTypeB.get(typeB);
+    }
+
+    /**
+     * Records the mapper resolved for an exact pair of types.
+     *
+     * @param typeA
+     * @param typeB
+     * @param includeAutoGeneratedMappers
+     * @param mapper
+     *            the resolved mapper, or null if none was found
+     * @return the mapper recorded for the pair, which may have been recorded
+     *         concurrently by another thread
+     */
+    Object putResolved(Type<?> typeA, Type<?> typeB, boolean includeAutoGeneratedMappers, Mapper<?, ?> mapper) {
+        ConcurrentHashMap<Type<?>, ConcurrentHashMap<Type<?>, Object>> registry = includeAutoGeneratedMappers ? resolvedWithAutoGenerated
+                : resolved;
+        ConcurrentHashMap<Type<?>, Object> byTypeB = registry.get(typeA);
+        if (byTypeB == null) {
+            byTypeB = new ConcurrentHashMap<Type<?>, Object>();
+            ConcurrentHashMap<Type<?>, Object> existing = registry.putIfAbsent(typeA, byTypeB);
+            if (existing != null) {
+                byTypeB = existing;
+            }
+        }
+        Object value = mapper == null ? NONE : mapper;
+        Object existing = byTypeB.putIfAbsent(typeB, value);
+        return existing != null ? existing : value;
+    }
+}
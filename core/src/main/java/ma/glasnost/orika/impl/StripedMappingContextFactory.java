@@ -0,0 +1,192 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingContextFactory;
+
+/**
+ * StripedMappingContextFactory pools MappingContext instances in a number of
+ * independent, bounded stripes instead of a single shared queue.<br>
+ * <br>
+ * A thread always polls and offers contexts to the stripe selected by its id,
+ * so that in the common case (a context released by the thread which obtained
+ * it) a thread keeps reusing the same few instances, and threads mapping
+ * concurrently do not contend on a common lock. Each stripe holds at most
+ * <code>contextsPerStripe</code> idle contexts; contexts released to a full
+ * stripe are dropped.<br>
+ * <br>
+ * To use it, pass an instance to
+ * {@link DefaultMapperFactory.MapperFactoryBuilder#mappingContextFactory(MappingContextFactory)}
+ * , or name this class in the {@link ma.glasnost.orika.OrikaSystemProperties#MAPPING_CONTEXT_FACTORY}
+ * system property; the non-cyclic contexts used by
+ * {@link DefaultMapperFactory#getMapperFacade(ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type, boolean)}
+ * are then pooled the same way.
+ *
+ */
+public class StripedMappingContextFactory implements MappingContextFactory {
+
+    /**
+     * The default maximum number of idle contexts kept per stripe
+     */
+    public static final int DEFAULT_CONTEXTS_PER_STRIPE = 4;
+
+    private final Map<Object, Object> globalProperties;
+    private final AtomicReferenceArray<MappingContext>[] stripes;
+    private final int stripeMask;
+    private final int contextsPerStripe;
+
+    /**
+     * Constructs a new factory with one stripe per available processor
+     * (rounded up to a power of two), each of which keeps up to
+     * {@link #DEFAULT_CONTEXTS_PER_STRIPE} idle contexts.
+     */
+    public StripedMappingContextFactory() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CONTEXTS_PER_STRIPE);
+    }
+
+    /**
+     * Constructs a new factory.
+     *
+     * @param stripes
+     *            the number of stripes; rounded up to a power of two
+     * @param contextsPerStripe
+     *            the maximum number of idle contexts kept by each stripe
+     */
+    public StripedMappingContextFactory(int stripes, int contextsPerStripe) {
+        this(new ConcurrentHashMap<Object, Object>(), stripes, contextsPerStripe);
+    }
+
+    /**
+     * Constructs a new factory which shares the specified global properties.
+     *
+     * @param globalProperties
+     * @param stripes
+     * @param contextsPerStripe
+     */
+    @SuppressWarnings("unchecked")
+    protected StripedMappingContextFactory(Map<Object, Object> globalProperties, int stripes, int contextsPerStripe) {
+        if (stripes < 1 || contextsPerStripe < 1) {
+            throw new IllegalArgumentException("stripes and contextsPerStripe must be positive");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.globalProperties = globalProperties;
+        this.stripes = new AtomicReferenceArray[size];
+        for (int i = 0; i < size; ++i) {
+            this.stripes[i] = new AtomicReferenceArray<MappingContext>(contextsPerStripe);
+        }
+        this.stripeMask = size - 1;
+        this.contextsPerStripe = contextsPerStripe;
+    }
+
+    /**
+     * Creates a new context instance when none is available from the pool;
+     * subclasses may override this to supply their own MappingContext type.
+     *
+     * @param globalProperties
+     * @return a new MappingContext
+     */
+    protected MappingContext newContext(Map<Object, Object> globalProperties) {
+        return new MappingContext(globalProperties);
+    }
+
+    /**
+     * @return whether contexts obtained from this factory should guard against
+     *         cycles
+     */
+    protected boolean containsCycle() {
+        return true;
+    }
+
+    /**
+     * @return a factory which pools {@link NonCyclicMappingContext} instances
+     *         in the same way as this one, and shares its global properties
+     */
+    public MappingContextFactory nonCyclic() {
+        return new NonCyclic(globalProperties, stripes.length, contextsPerStripe);
+    }
+
+    private AtomicReferenceArray<MappingContext> stripe() {
+        long id = Thread.currentThread().getId();
+        return stripes[(int) (id ^ (id >>> 32)) & stripeMask];
+    }
+
+    public MappingContext getContext() {
+        AtomicReferenceArray<MappingContext> stripe = stripe();
+        MappingContext context = null;
+        for (int i = 0; i < contextsPerStripe; ++i) {
+            MappingContext candidate = stripe.get(i);
+            if (candidate != null && stripe.compareAndSet(i, candidate, null)) {
+                context = candidate;
+                break;
+            }
+        }
+        if (context == null) {
+            context = newContext(globalProperties);
+        }
+        context.containsCycle(containsCycle());
+        return context;
+    }
+
+    public void release(MappingContext context) {
+        context.reset();
+        AtomicReferenceArray<MappingContext> stripe = stripe();
+        for (int i = 0; i < contextsPerStripe; ++i) {
+            if (stripe.get(i) == null && stripe.compareAndSet(i, null, context)) {
+                return;
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see ma.glasnost.orika.MappingContextFactory#getGlobalProperties()
+     */
+    public Map<Object, Object> getGlobalProperties() {
+        return globalProperties;
+    }
+
+    /**
+     * Striped factory of non-cyclic contexts
+     */
+    private static class NonCyclic extends StripedMappingContextFactory {
+
+        NonCyclic(Map<Object, Object> globalProperties, int stripes, int contextsPerStripe) {
+            super(globalProperties, stripes, contextsPerStripe);
+        }
+
+        @Override
+        protected MappingContext newContext(Map<Object, Object> globalProperties) {
+            return new NonCyclicMappingContext(globalProperties);
+        }
+
+        @Override
+        protected boolean containsCycle() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javassist.CannotCompileException;
+import javassist.CtClass;
+import javassist.bytecode.ClassFile;
+import ma.glasnost.orika.OrikaSystemProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CachingCompilerStrategy compiles classes with Javassist, and stores each of
+ * them in a cache directory, keyed by the
+ * {@link SourceCodeContext#getFingerprint() fingerprint} of the generated
+ * code; on the next start, a class found in the cache is loaded through a
+ * {@link ByteArrayClassLoader} rather than compiled again.<br>
+ * Note that only the compilation is saved: the source of every class is still
+ * generated, since the fingerprint is computed from it, and since it decides
+ * which converters, mappers and types the class refers to (by index), which
+ * must be wired into each instance.<br>
+ * Each entry also records a digest of the class file of every type which the
+ * compiled class refers to (other than the <code>java.*</code> types); should
+ * any of them have changed, or no longer be found, the entry is discarded and
+ * the class compiled (and stored) again. Entries are written to a temporary
+ * file which is then renamed, so that concurrent processes sharing the cache
+ * never read a partial entry.<br>
+ * <br>
+ * Classes which must be generated within the package of the types they map
+ * (because those types are not public) are not cached, since they could not
+ * access those types from another class-loader.<br>
+ * <br>
+ * The cache directory is specified by the
+ * {@link OrikaSystemProperties#CLASS_CACHE_PATH} system property.
+ *
+ */
+public class CachingCompilerStrategy extends JavassistCompilerStrategy {
+
+    private final static Logger LOG = LoggerFactory.getLogger(CachingCompilerStrategy.class);
+
+    private static final String GENERATED_PACKAGE = "ma.glasnost.orika.generated";
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final int ENTRY_VERSION = 1;
+
+    private final File cacheDirectory;
+
+    /**
+     * The class-loader through which cached classes are loaded, for each
+     * parent class-loader; a WeakHashMap is used to avoid retaining
+     * references to child class-loaders
+     */
+    private final Map<ClassLoader, WeakReference<CacheClassLoader>> classLoaders = new WeakHashMap<ClassLoader, WeakReference<CacheClassLoader>>(4);
+
+    /**
+     * The digests of the class files already read, for each class-loader
+     */
+    private final Map<ClassLoader, Map<String, String>> digests = new WeakHashMap<ClassLoader, Map<String, String>>(4);
+
+    /**
+     * Constructs a new CachingCompilerStrategy which uses the cache directory
+     * specified by the {@link OrikaSystemProperties#CLASS_CACHE_PATH} system
+     * property
+     */
+    public CachingCompilerStrategy() {
+        this(new File(System.getProperty(OrikaSystemProperties.CLASS_CACHE_PATH, new File(System.getProperty("java.io.tmpdir"),
+                "orika-class-cache").getPath())));
+    }
+
+    /**
+     * Constructs a new CachingCompilerStrategy
+     *
+     * @param cacheDirectory
+     *            the directory in which the compiled classes are stored
+     */
+    public CachingCompilerStrategy(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    @Override
+    public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+        if (isCacheable(sourceCode)) {
+            Class<?> cachedClass = loadCachedClass(sourceCode);
+            if (cachedClass != null) {
+                return cachedClass;
+            }
+        }
+        return super.compileClass(sourceCode);
+    }
+
+    @Override
+    protected void writeClassFile(SourceCodeContext sourceCode, CtClass byteCodeClass) throws IOException {
+        super.writeClassFile(sourceCode, byteCodeClass);
+        if (isCacheable(sourceCode)) {
+            try {
+                storeClass(sourceCode.getFingerprint(), byteCodeClass.getName(), byteCodeClass.toBytecode());
+            } catch (CannotCompileException | IOException e) {
+                LOG.warn("Could not store " + byteCodeClass.getName() + " in the class cache", e);
+            }
+        }
+    }
+
+    private static boolean isCacheable(SourceCodeContext sourceCode) {
+        return GENERATED_PACKAGE.equals(sourceCode.getPackageName());
+    }
+
+    /**
+     * Loads the class for the specified source from the cache, discarding its
+     * entry if it is stale.
+     *
+     * @param sourceCode
+     * @return the cached class, or null if there is no (valid) entry for it
+     */
+    private Class<?> loadCachedClass(SourceCodeContext sourceCode) {
+        File entryFile = new File(cacheDirectory, sourceCode.getFingerprint() + ENTRY_SUFFIX);
+        if (!entryFile.isFile()) {
+            return null;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            String className;
+            byte[] classData = null;
+            String staleReason = null;
+            try (DataInputStream in = new DataInputStream(new FileInputStream(entryFile))) {
+                if (in.readInt() != ENTRY_VERSION) {
+                    staleReason = "it was written by another version";
+                }
+                className = in.readUTF();
+                int dependencies = in.readInt();
+                for (int i = 0; i < dependencies && staleReason == null; ++i) {
+                    String dependency = in.readUTF();
+                    String digest = in.readUTF();
+                    if (!digest.equals(digestOf(dependency, classLoader))) {
+                        staleReason = dependency + " has changed";
+                    }
+                }
+                if (staleReason == null) {
+                    classData = new byte[in.readInt()];
+                    in.readFully(classData);
+                }
+            }
+            if (staleReason != null) {
+                return discard(entryFile, staleReason);
+            }
+            Class<?> cachedClass = getClassLoader(classLoader).defineCachedClass(className, classData);
+            if (!sourceCode.getSuperClass().isAssignableFrom(cachedClass)) {
+                return discard(entryFile, "it does not extend " + sourceCode.getSuperClass());
+            }
+            return cachedClass;
+        } catch (IOException | ClassNotFoundException | LinkageError e) {
+            LOG.warn("Could not load " + entryFile + " from the class cache", e);
+            return discard(entryFile, e.toString());
+        }
+    }
+
+    /**
+     * Stores an entry for the specified class, along with the digests of the
+     * types it refers to.
+     *
+     * @param fingerprint
+     * @param className
+     * @param classData
+     * @throws IOException
+     */
+    private void storeClass(String fingerprint, String className, byte[] classData) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Map<String, String> dependencies = new TreeMap<String, String>();
+        ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(classData)));
+        for (String referencedClass : classFile.getConstPool().getClassNames()) {
+            String dependency = toClassName(referencedClass);
+            if (dependency != null && !dependency.equals(className) && !dependency.startsWith("java.")) {
+                String digest = digestOf(dependency, classLoader);
+                if (digest == null) {
+                    LOG.debug("Not caching {}, since the class file of {} could not be found", className, dependency);
+                    return;
+                }
+                dependencies.put(dependency, digest);
+            }
+        }
+
+        ByteArrayOutputStream entry = new ByteArrayOutputStream(classData.length + 64 * dependencies.size());
+        try (DataOutputStream out = new DataOutputStream(entry)) {
+            out.writeInt(ENTRY_VERSION);
+            out.writeUTF(className);
+            out.writeInt(dependencies.size());
+            for (Map.Entry<String, String> dependency : dependencies.entrySet()) {
+                out.writeUTF(dependency.getKey());
+                out.writeUTF(dependency.getValue());
+            }
+            out.writeInt(classData.length);
+            out.write(classData);
+        }
+
+        if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs() && !cacheDirectory.isDirectory()) {
+            throw new IOException("Could not create the class cache directory " + cacheDirectory);
+        }
+        File tempFile = File.createTempFile(fingerprint, ".tmp", cacheDirectory);
+        try {
+            try (FileOutputStream out = new FileOutputStream(tempFile)) {
+                entry.writeTo(out);
+            }
+            File entryFile = new File(cacheDirectory, fingerprint + ENTRY_SUFFIX);
+            try {
+                Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    private static Class<?> discard(File entryFile, String reason) {
+        LOG.debug("Discarding {} from the class cache, since {}", entryFile, reason);
+        if (!entryFile.delete() && entryFile.exists()) {
+            LOG.warn("Could not delete stale class cache entry {}", entryFile);
+        }
+        return null;
+    }
+
+    /**
+     * Converts a class name from the constant pool (which may be an internal
+     * name, or the descriptor of an array type) to the name of a class.
+     *
+     * @param referencedClass
+     * @return the name of the class, or null for a primitive array
+     */
+    static String toClassName(String referencedClass) {
+        String name = referencedClass.replace('/', '.');
+        int dimensions = 0;
+        while (dimensions < name.length() && name.charAt(dimensions) == '[') {
+            ++dimensions;
+        }
+        if (dimensions > 0) {
+            if (name.charAt(dimensions) != 'L') {
+                return null;
+            }
+            name = name.substring(dimensions + 1, name.length() - 1);
+        }
+        while (name.endsWith("[]")) {
+            name = name.substring(0, name.length() - 2);
+        }
+        return name;
+    }
+
+    /**
+     * @param className
+     * @param classLoader
+     * @return a digest of the class file of the specified class, or null if
+     *         its class file could not be found
+     * @throws IOException
+     */
+    private String digestOf(String className, ClassLoader classLoader) throws IOException {
+        Map<String, String> classLoaderDigests;
+        synchronized (digests) {
+            classLoaderDigests = digests.get(classLoader);
+            if (classLoaderDigests == null) {
+                classLoaderDigests = new ConcurrentHashMap<String, String>();
+                digests.put(classLoader, classLoaderDigests);
+            }
+        }
+        String digest = classLoaderDigests.get(className);
+        if (digest == null) {
+            digest = readDigest(className, classLoader);
+            if (digest != null) {
+                classLoaderDigests.put(className, digest);
+            }
+        }
+        return digest;
+    }
+
+    private static String readDigest(String className, ClassLoader classLoader) throws IOException {
+        String resource = className.replace('.', '/') + ".class";
+        InputStream in = classLoader != null ? classLoader.getResourceAsStream(resource) : ClassLoader.getSystemResourceAsStream(resource);
+        if (in == null) {
+            return null;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private CacheClassLoader getClassLoader(ClassLoader parent) {
+        synchronized (classLoaders) {
+            WeakReference<CacheClassLoader> reference = classLoaders.get(parent);
+            CacheClassLoader classLoader = reference != null ? reference.get() : null;
+            if (classLoader == null) {
+                classLoader = new CacheClassLoader(parent);
+                classLoaders.put(parent, new WeakReference<CacheClassLoader>(classLoader));
+            }
+            return classLoader;
+        }
+    }
+
+    /**
+     * The ByteArrayClassLoader through which the cached classes are loaded
+     */
+    private static class CacheClassLoader extends ByteArrayClassLoader {
+
+        private CacheClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        private Class<?> defineCachedClass(String className, byte[] classData) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(className)) {
+                Class<?> loadedClass = findLoadedClass(className);
+                if (loadedClass != null) {
+                    return loadedClass;
+                }
+                putClassData(className, classData);
+                return loadClass(className);
+            }
+        }
+    }
+}
@@ -50,6 +50,24 @@ public abstract class CompilerStrategy {
      */
     public abstract void assureTypeIsAccessible(Class<?> type) throws SourceCodeGenerationException;
 
+    /**
+     * Notifies this compiler strategy that a MapperFactory starts building;
+     * every call is matched by a call to {@link #buildCompleted()}, and builds
+     * of distinct factories sharing this strategy may overlap.
+     */
+    public void buildStarted() {
+        // nothing by default
+    }
+
+    /**
+     * Notifies this compiler strategy that a build announced by
+     * {@link #buildStarted()} has completed (or failed); classes may still be
+     * compiled afterwards, for instance by a lazy build.
+     */
+    public void buildCompleted() {
+        // nothing by default
+    }
+
     protected final boolean writeSourceFiles;
     protected final boolean writeClassFiles;
     protected final String pathToWriteSourceFiles;
@@ -0,0 +1,176 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javassist.CannotCompileException;
+import javassist.CtClass;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A compiler strategy which defines the mappers and object factories it
+ * compiles as hidden classes, on Java 15 and later; hidden classes are not
+ * bound to the life of their class-loader, and are unloaded as soon as the
+ * MapperFactory which uses them becomes unreachable.<br>
+ * <br>
+ *
+ * A hidden class is defined in the package, and class-loader, of one of the
+ * types it refers to (typically a mapped type), which sees all the others;
+ * this requires a lookup with full privilege access on that package. Orika
+ * obtains one itself when it is loaded by the same class-loader as the mapped
+ * types (on the class-path, in the same unnamed module); otherwise, the
+ * application supplies one per package, obtained with
+ * <code>MethodHandles.lookup()</code> from one of its classes:
+ *
+ * <pre>
+ * new HiddenClassCompilerStrategy(MethodHandles.lookup())
+ * </pre>
+ *
+ * When there is no such type or lookup, or on older runtimes, classes are
+ * defined as by the JavassistCompilerStrategy.<br>
+ * <br>
+ *
+ * Hidden classes are only supported by a multi-release Orika jar, built on
+ * Java 15 or later (see the <code>java15-multi-release</code> profile of
+ * orika-core); a jar built on an older JDK only holds the Java 8 version of
+ * the support, with which this strategy behaves as the
+ * JavassistCompilerStrategy.
+ *
+ */
+public class HiddenClassCompilerStrategy extends JavassistCompilerStrategy {
+
+    private final static Logger LOG = LoggerFactory.getLogger(HiddenClassCompilerStrategy.class);
+
+    /**
+     * The definer of hidden classes, or null on runtimes older than Java 15
+     */
+    private static final HiddenClassDefiner DEFINER = HiddenClasses.getDefiner();
+
+    private final Map<String, MethodHandles.Lookup> hostLookups;
+
+    /**
+     * Constructs a new HiddenClassCompilerStrategy
+     *
+     * @param hostLookups
+     *            lookups, with full privilege access, on classes of the
+     *            packages in which hidden classes may be defined; only needed
+     *            for the packages of class-loaders other than Orika's own
+     */
+    public HiddenClassCompilerStrategy(MethodHandles.Lookup... hostLookups) {
+        this.hostLookups = new HashMap<String, MethodHandles.Lookup>();
+        for (MethodHandles.Lookup hostLookup : hostLookups) {
+            this.hostLookups.put(packagePrefix(hostLookup.lookupClass()), hostLookup);
+        }
+    }
+
+    /**
+     * @return true if hidden classes are supported by the current runtime
+     */
+    public static boolean isSupported() {
+        return DEFINER != null;
+    }
+
+    @Override
+    protected Class<?> defineClass(SourceCodeContext sourceCode, CtClass byteCodeClass) throws CannotCompileException {
+        if (DEFINER != null) {
+            Class<?> anchor = findAnchor(byteCodeClass);
+            if (anchor != null) {
+                String className = byteCodeClass.getName();
+                String packagePrefix = packagePrefix(anchor);
+                MethodHandles.Lookup hostLookup = hostLookups.get(packagePrefix);
+                if (hostLookup != null && hostLookup.lookupClass().getClassLoader() != anchor.getClassLoader()) {
+                    hostLookup = null;
+                }
+                byteCodeClass.setName(packagePrefix + sourceCode.getClassSimpleName());
+                try {
+                    return DEFINER.define(anchor, hostLookup, byteCodeClass.toBytecode());
+                } catch (IllegalAccessException | IOException | IllegalStateException | SecurityException | LinkageError e) {
+                    LOG.debug("Could not define " + className + " as a hidden class of " + anchor, e);
+                    byteCodeClass.defrost();
+                    byteCodeClass.setName(className);
+                }
+            }
+        }
+        return super.defineClass(sourceCode, byteCodeClass);
+    }
+
+    /**
+     * Finds the class, among those referred to by the compiled class, in whose
+     * package the compiled class may be defined: its class-loader should see
+     * all of the other classes referred to, and is preferably the current
+     * thread's context class-loader.
+     *
+     * @param byteCodeClass
+     *            the compiled class
+     * @return the anchor class, or null if there is none
+     */
+    private static Class<?> findAnchor(CtClass byteCodeClass) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        List<Class<?>> referencedClasses = new ArrayList<Class<?>>();
+        for (String referencedClass : byteCodeClass.getClassFile().getConstPool().getClassNames()) {
+            String className = CachingCompilerStrategy.toClassName(referencedClass);
+            if (className != null && !className.equals(byteCodeClass.getName())) {
+                try {
+                    referencedClasses.add(Class.forName(className, false, contextClassLoader));
+                } catch (ClassNotFoundException e) {
+                    return null;
+                }
+            }
+        }
+
+        Class<?> anchor = null;
+        for (Class<?> candidate : referencedClasses) {
+            ClassLoader classLoader = candidate.getClassLoader();
+            if (classLoader == null || candidate.getName().startsWith("java.")
+                    || (anchor != null && (anchor.getClassLoader() == contextClassLoader || classLoader != contextClassLoader))) {
+                continue;
+            }
+            if (seesAll(classLoader, referencedClasses)) {
+                anchor = candidate;
+            }
+        }
+        return anchor;
+    }
+
+    private static String packagePrefix(Class<?> type) {
+        String name = type.getName();
+        return name.substring(0, name.lastIndexOf('.') + 1);
+    }
+
+    private static boolean seesAll(ClassLoader classLoader, List<Class<?>> classes) {
+        for (Class<?> type : classes) {
+            try {
+                if (Class.forName(type.getName(), false, classLoader) != type) {
+                    return false;
+                }
+            } catch (ClassNotFoundException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.lang.invoke.MethodHandles.Lookup;
+
+/**
+ * Defines hidden classes, on the runtimes which support them (see
+ * {@link HiddenClasses#getDefiner()}).
+ * 
+ */
+interface HiddenClassDefiner {
+    
+    /**
+     * Defines a hidden class, which may be unloaded as soon as it is no longer
+     * reachable, in the package and class-loader of the provided anchor class.
+     * 
+     * @param anchor
+     *            a class of the package in which to define the hidden class
+     * @param hostLookup
+     *            a lookup on a class of the package of the anchor, supplied by
+     *            the application, or null to use Orika's own
+     * @param bytes
+     *            the class file of the hidden class, named within the package
+     *            of the anchor
+     * @return the hidden class
+     * @throws IllegalAccessException
+     *             if the lookup has no full privilege access on the package
+     *             of the anchor
+     */
+    Class<?> define(Class<?> anchor, Lookup hostLookup, byte[] bytes) throws IllegalAccessException;
+}
@@ -0,0 +1,42 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+/**
+ * Provides the {@link HiddenClassDefiner} of the current runtime; hidden
+ * classes are not available before Java 15, so this version (the one loaded
+ * on older runtimes) provides none. The version for Java 15 and later is found
+ * in the <code>META-INF/versions/15</code> directory of the (multi-release)
+ * jar.
+ * 
+ */
+final class HiddenClasses {
+    
+    private HiddenClasses() {
+        // prevent instantiation
+    }
+    
+    /**
+     * @return the definer of hidden classes, or null if hidden classes are not
+     *         supported by this runtime
+     */
+    static HiddenClassDefiner getDefiner() {
+        return null;
+    }
+}
@@ -59,7 +59,8 @@ public class JaninoCompilerStrategy extends CompilerStrategy {
             Java.CompilationUnit localCompilationUnit = new Parser(scanner).parseCompilationUnit();
             UnitCompiler unitCompile = new UnitCompiler(localCompilationUnit, iClassLoader);
             ClassFile[] classes = unitCompile.compileUnit(false, false, false);
-            return classLoader.findClass(classes[0].getThisClassName());
+            classLoader.putClassData(classes[0].getThisClassName(), classes[0].toByteArray());
+            return classLoader.loadClass(classes[0].getThisClassName());
         } catch (Exception e) {
             LOG.error("Can not compile {0}", sourceCode.getClassName(), e);
             throw new MappingException("Can not compile the generated mapper", e);
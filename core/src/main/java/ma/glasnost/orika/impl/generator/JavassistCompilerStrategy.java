@@ -21,10 +21,10 @@ package ma.glasnost.orika.impl.generator;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Random;
 import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentHashMap;
 
 import javassist.CannotCompileException;
 import javassist.ClassClassPath;
@@ -34,6 +34,7 @@ import javassist.CtField;
 import javassist.CtNewMethod;
 import javassist.LoaderClassPath;
 import javassist.NotFoundException;
+import ma.glasnost.orika.OrikaSystemProperties;
 import ma.glasnost.orika.impl.generator.Analysis.Visibility;
 
 import org.slf4j.Logger;
@@ -44,7 +45,16 @@ import org.slf4j.LoggerFactory;
  * object.<br>
  * <br>
  * 
- * By default this compiler strategy writes no source or class files.
+ * By default this compiler strategy writes no source or class files.<br>
+ * <br>
+ * 
+ * The compiled classes are detached from the class-pool once defined, and the
+ * class-pool retains a bounded number of the other classes it looks up (see
+ * {@link OrikaSystemProperties#CLASS_POOL_SIZE}); it may also be discarded at
+ * the end of each build (see {@link OrikaSystemProperties#SCOPED_CLASS_POOL}).
+ * The heap retained by the class-pool is so bounded whatever the number of
+ * class-maps; the heap retained by the MapperFactory itself, which holds the
+ * generated mappers, still grows with it.
  * 
  * @author matt.deboer@gmail.com
  */
@@ -53,28 +63,66 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
     private static final Random RANDOM = new Random();
     private static final String WRITE_SOURCE_FILES_BY_DEFAULT = "false";
     private static final String WRITE_CLASS_FILES_BY_DEFAULT = "false";
+    private static final String CLASS_POOL_SIZE_BY_DEFAULT = "1024";
+    private static final String SCOPED_CLASS_POOL_BY_DEFAULT = "false";
     
     private final static Logger LOG = LoggerFactory.getLogger(JavassistCompilerStrategy.class);
-    private final static Map<Class<?>, Boolean> superClasses = new ConcurrentHashMap<Class<?>, Boolean>(3);
     
-    private ClassPool classPool;
+    private final int classPoolSize;
+    private final boolean scopedClassPool;
     
     /**
-     * Keep a set of class-loaders that have already been added to the javassist
-     * class-pool Use a WeakHashMap to avoid retaining references to child
-     * class-loaders
+     * The current class-pool; when scoped, it is discarded once no build is in
+     * progress, and created again on the next compilation
      */
-    private WeakHashMap<ClassLoader, Boolean> referencedLoaders = new WeakHashMap<ClassLoader, Boolean>(8);
+    private volatile BoundedClassPool classPool;
+    private int buildsInProgress;
     
     /**
      */
     public JavassistCompilerStrategy() {
         super(WRITE_SOURCE_FILES_BY_DEFAULT, WRITE_CLASS_FILES_BY_DEFAULT);
         
-        this.classPool = new ClassPool();
-        this.classPool.appendSystemPath();
-        
-        this.classPool.insertClassPath(new ClassClassPath(this.getClass()));
+        this.classPoolSize = Integer.parseInt(System.getProperty(OrikaSystemProperties.CLASS_POOL_SIZE, CLASS_POOL_SIZE_BY_DEFAULT));
+        this.scopedClassPool = Boolean.valueOf(System.getProperty(OrikaSystemProperties.SCOPED_CLASS_POOL,
+                SCOPED_CLASS_POOL_BY_DEFAULT));
+        this.classPool = newClassPool();
+    }
+    
+    private BoundedClassPool newClassPool() {
+        BoundedClassPool pool = new BoundedClassPool(classPoolSize);
+        pool.appendSystemPath();
+        pool.insertClassPath(new ClassClassPath(this.getClass()));
+        return pool;
+    }
+    
+    /**
+     * @return the current class-pool, created if it has been discarded
+     */
+    private BoundedClassPool getClassPool() {
+        BoundedClassPool pool = classPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = classPool;
+                if (pool == null) {
+                    pool = newClassPool();
+                    classPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+    
+    @Override
+    public synchronized void buildStarted() {
+        ++buildsInProgress;
+    }
+    
+    @Override
+    public synchronized void buildCompleted() {
+        if (--buildsInProgress == 0 && scopedClassPool) {
+            classPool = null;
+        }
     }
     
     /**
@@ -114,30 +162,6 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
         }
     }
     
-    /**
-     * Attempts to register a class-loader in the maintained list of referenced
-     * class-loaders. Returns true if the class-loader was registered as a
-     * result of the call; false is returned if the class-loader was already
-     * registered.
-     * 
-     * @param cl
-     * @return true if the class-loader was registered as a result of this call;
-     *         false if the class-loader was already registered
-     */
-    private boolean registerClassLoader(ClassLoader cl) {
-        Boolean found = referencedLoaders.get(cl);
-        if (found == null) {
-            synchronized (cl) {
-                found = referencedLoaders.get(cl);
-                if (found == null) {
-                    referencedLoaders.put(cl, Boolean.TRUE);
-                    classPool.insertClassPath(new LoaderClassPath(cl));
-                }
-            }
-        }
-        return found == null || !found;
-    }
-    
     /*
      * (non-Javadoc)
      * 
@@ -151,30 +175,55 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
                 throw new SourceCodeGenerationException(type + " is not accessible");
             }
             
-            String className = type.getName();
-            if (type.isArray()) {
-                // Strip off the "[L" prefix from the internal name
-                className = type.getComponentType().getName();
+            Class<?> componentType = type;
+            while (componentType.isArray()) {
+                componentType = componentType.getComponentType();
             }
-            if (type.getClassLoader() != null) {
-                try {
-                    classPool.get(className);
-                } catch (NotFoundException e) {
-                    
-                    if (registerClassLoader(type.getClassLoader())) {
-                        try {
-                            classPool.get(className);
-                        } catch (NotFoundException e2) {
-                            throw new SourceCodeGenerationException(type + " is not accessible", e2);
-                        }
-                    } else {
-                        throw new SourceCodeGenerationException(type + " is not accessible", e);
-                    }
+            if (componentType.getClassLoader() != null) {
+                /*
+                 * Only look for the class file, rather than caching its
+                 * descriptor in the class-pool
+                 */
+                BoundedClassPool pool = getClassPool();
+                String className = componentType.getName();
+                if (pool.find(className) == null
+                        && (!pool.registerClassLoader(componentType.getClassLoader()) || pool.find(className) == null)) {
+                    throw new SourceCodeGenerationException(type + " is not accessible");
                 }
             }
         }
     }
     
+    /**
+     * Defines the compiled class within the current thread's context
+     * class-loader.
+     * 
+     * @param sourceCode
+     *            the generated class
+     * @param byteCodeClass
+     *            the compiled class
+     * @return the class defined
+     * @throws CannotCompileException
+     */
+    protected Class<?> defineClass(SourceCodeContext sourceCode, CtClass byteCodeClass) throws CannotCompileException {
+        return byteCodeClass.toClass(Thread.currentThread().getContextClassLoader(), this.getClass().getProtectionDomain());
+    }
+    
+    /**
+     * Makes the super-class of the generated class, and the classes visible to
+     * the current thread's context class-loader, available to the class-pool.
+     * 
+     * @param sourceCode
+     *            the generated class about to be compiled
+     * @return the class-pool with which to compile the generated class
+     */
+    protected ClassPool prepareClassPool(SourceCodeContext sourceCode) {
+        BoundedClassPool pool = getClassPool();
+        pool.registerSuperClass(sourceCode.getSuperClass());
+        pool.registerClassLoader(Thread.currentThread().getContextClassLoader());
+        return pool;
+    }
+    
     /*
      * (non-Javadoc)
      * 
@@ -184,6 +233,7 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
      */
     public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
         
+        ClassPool classPool = prepareClassPool(sourceCode);
         StringBuilder className = new StringBuilder(sourceCode.getClassName());
         CtClass byteCodeClass = null;
         int attempts = 0;
@@ -211,15 +261,6 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
             // TODO: do we really need this check here?
             // assureTypeIsAccessible(this.getClass());
             
-            Boolean existing = superClasses.put(sourceCode.getSuperClass(), true);
-            if (existing == null || !existing) {
-                classPool.insertClassPath(new ClassClassPath(sourceCode.getSuperClass()));
-            }
-            
-            if (registerClassLoader(Thread.currentThread().getContextClassLoader())) {
-                classPool.insertClassPath(new LoaderClassPath(Thread.currentThread().getContextClassLoader()));
-            }
-            
             abstractMapperClass = classPool.get(sourceCode.getSuperClass().getCanonicalName());
             byteCodeClass.setSuperclass(abstractMapperClass);
             
@@ -243,7 +284,7 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
                 }
                 
             }
-            compiledClass = byteCodeClass.toClass(Thread.currentThread().getContextClassLoader(), this.getClass().getProtectionDomain());
+            compiledClass = defineClass(sourceCode, byteCodeClass);
             
             writeClassFile(sourceCode, byteCodeClass);
             
@@ -253,9 +294,99 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
             throw new SourceCodeGenerationException("Error compiling " + sourceCode.getClassName(), e);
         } catch (IOException e) {
             throw new SourceCodeGenerationException("Could not write files for " + sourceCode.getClassName(), e);
+        } finally {
+            byteCodeClass.detach();
         }
         
         return compiledClass;
     }
     
+    /**
+     * A class-pool which retains at most a given number of the classes it
+     * looks up, evicting the least recently used ones; the classes made in the
+     * pool are not counted, as they are detached once compiled.<br>
+     * The class-loaders and super-classes whose class-paths have been inserted
+     * are tracked per pool, so that a discarded pool takes them along.
+     */
+    private static final class BoundedClassPool extends ClassPool {
+        
+        private final Map<String, Boolean> lookedUpClasses;
+        
+        /**
+         * Use a WeakHashMap to avoid retaining references to child
+         * class-loaders
+         */
+        private final Map<ClassLoader, Boolean> referencedLoaders = new WeakHashMap<ClassLoader, Boolean>(8);
+        private final Map<Class<?>, Boolean> superClasses = new WeakHashMap<Class<?>, Boolean>(3);
+        
+        private BoundedClassPool(final int maxSize) {
+            this.lookedUpClasses = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+                
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    if (size() > maxSize) {
+                        BoundedClassPool.super.removeCached(eldest.getKey());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+        
+        /**
+         * Attempts to register a class-loader in the maintained list of
+         * referenced class-loaders.
+         * 
+         * @param cl
+         * @return true if the class-loader was registered as a result of this
+         *         call; false if the class-loader was already registered
+         */
+        boolean registerClassLoader(ClassLoader cl) {
+            synchronized (referencedLoaders) {
+                if (referencedLoaders.put(cl, Boolean.TRUE) == null) {
+                    insertClassPath(new LoaderClassPath(cl));
+                    return true;
+                }
+                return false;
+            }
+        }
+        
+        void registerSuperClass(Class<?> superClass) {
+            synchronized (superClasses) {
+                if (superClasses.put(superClass, Boolean.TRUE) == null) {
+                    insertClassPath(new ClassClassPath(superClass));
+                }
+            }
+        }
+        
+        @Override
+        protected CtClass getCached(String classname) {
+            CtClass cached = super.getCached(classname);
+            if (cached != null) {
+                synchronized (lookedUpClasses) {
+                    lookedUpClasses.get(classname);
+                }
+            }
+            return cached;
+        }
+        
+        @Override
+        protected void cacheCtClass(String classname, CtClass c, boolean dynamic) {
+            super.cacheCtClass(classname, c, dynamic);
+            if (!dynamic) {
+                synchronized (lookedUpClasses) {
+                    lookedUpClasses.put(classname, Boolean.TRUE);
+                }
+            }
+        }
+        
+        @Override
+        protected CtClass removeCached(String classname) {
+            synchronized (lookedUpClasses) {
+                lookedUpClasses.remove(classname);
+            }
+            return super.removeCached(classname);
+        }
+    }
 }
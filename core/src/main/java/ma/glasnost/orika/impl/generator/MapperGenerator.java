@@ -21,12 +21,15 @@ package ma.glasnost.orika.impl.generator;
 import static java.lang.String.format;
 import static ma.glasnost.orika.impl.generator.SourceCodeContext.append;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import ma.glasnost.orika.MapperFactory;
 import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.Properties;
 import ma.glasnost.orika.impl.GeneratedMapperBase;
 import ma.glasnost.orika.metadata.ClassMap;
 import ma.glasnost.orika.metadata.FieldMap;
@@ -41,6 +44,18 @@ public final class MapperGenerator {
     
     private static Logger LOGGER = LoggerFactory.getLogger(MapperGenerator.class);
     
+    /**
+     * HotSpot's FreqInlineSize: larger methods are not inlined into their
+     * (frequent) callers
+     */
+    private static final int HELPER_METHOD_SIZE = 325;
+    
+    /**
+     * The observed ratio of generated source characters to bytecode bytes;
+     * it varies with the code generated, so the sizes are approximate
+     */
+    private static final int SOURCE_CHARS_PER_BYTECODE_BYTE = 5;
+    
     private final MapperFactory mapperFactory;
     private final CompilerStrategy compilerStrategy;
     
@@ -137,6 +152,7 @@ public final class MapperGenerator {
         append(out, format("super.%s(a, b, mappingContext);", mapMethod), "\n\n", "// sourceType: " + source.type() + source.declare("a"),
                 "// destinationType: " + destination.type() + destination.declare("b"), "\n\n");
         
+        List<String> fieldMapCode = new ArrayList<String>();
         for (FieldMap currentFieldMap : classMap.getFieldsMapping()) {
             
             if (currentFieldMap.isExcluded()) {
@@ -165,7 +181,9 @@ public final class MapperGenerator {
                 try {
                     mappedFields.add(currentFieldMap);
                     String sourceCode = generateFieldMapCode(code, fieldMap, classMap, destination, logDetails);
-                    out.append(sourceCode);
+                    if (sourceCode.length() > 0) {
+                        fieldMapCode.add(sourceCode);
+                    }
                 } catch (final Exception e) {
                     MappingException me = new MappingException(e);
                     me.setSourceProperty(fieldMap.getSource());
@@ -179,6 +197,7 @@ public final class MapperGenerator {
             }
         }
         
+        appendFieldMapCode(code, out, mapMethod, source, destination, fieldMapCode);
         out.append(code.mapAggregateFields());
         
         out.append("\n\t\tif(customMapper != null) { \n\t\t\t customMapper.")
@@ -196,6 +215,61 @@ public final class MapperGenerator {
         return mappedFields;
     }
     
+    /**
+     * Appends the code of the field maps to the map method; when a size is
+     * configured by {@link Properties#MAX_MAP_METHOD_SIZE} (splitting is
+     * disabled by default) and the method would exceed it, consecutive field
+     * maps are grouped into private helper methods small enough to be
+     * inlined.<br>
+     * The bytecode size of the code is estimated from the length of its
+     * source, so that the decision does not depend on the compiler strategy;
+     * the estimate is approximate, and the methods actually compiled may be
+     * somewhat larger or smaller.
+     */
+    private void appendFieldMapCode(SourceCodeContext code, StringBuilder out, String mapMethod, VariableRef source,
+            VariableRef destination, List<String> fieldMapCode) {
+        
+        Integer maxMethodSize = (Integer) code.getMappingContext().getProperty(Properties.MAX_MAP_METHOD_SIZE);
+        int methodSize = estimateBytecodeSize(out);
+        for (String fieldCode : fieldMapCode) {
+            methodSize += estimateBytecodeSize(fieldCode);
+        }
+        if (maxMethodSize == null || maxMethodSize <= 0 || methodSize <= maxMethodSize || fieldMapCode.isEmpty()) {
+            for (String fieldCode : fieldMapCode) {
+                out.append(fieldCode);
+            }
+            return;
+        }
+        
+        StringBuilder helper = null;
+        int helperSize = 0;
+        int helpers = 0;
+        for (String fieldCode : fieldMapCode) {
+            int fieldSize = estimateBytecodeSize(fieldCode);
+            if (helper != null && helperSize + fieldSize > HELPER_METHOD_SIZE) {
+                code.addMethod(helper.append("\n\t}").toString());
+                helper = null;
+            }
+            if (helper == null) {
+                String helperMethod = mapMethod + "_part" + (++helpers);
+                helper = new StringBuilder();
+                helper.append(format("\tprivate void %s(%s %s, %s %s, %s mappingContext) {\n", helperMethod, source.typeName(),
+                        source.name(), destination.typeName(), destination.name(), MappingContext.class.getCanonicalName()));
+                helperSize = 0;
+                out.append(format("\n%s(%s, %s, mappingContext);", helperMethod, source.name(), destination.name()));
+            }
+            helper.append(fieldCode);
+            helperSize += fieldSize;
+        }
+        code.addMethod(helper.append("\n\t}").toString());
+        out.append("\n");
+        code.debug("\n\t split into " + helpers + " helper method(s), as estimated at " + methodSize + " bytes");
+    }
+    
+    private static int estimateBytecodeSize(CharSequence sourceCode) {
+        return sourceCode.length() / SOURCE_CHARS_PER_BYTECODE_BYTE;
+    }
+    
     private boolean isAlreadyExistsInUsedMappers(FieldMap fieldMap, ClassMap<?, ?> classMap) {
         
         Set<ClassMap<Object, Object>> usedClassMapSet = mapperFactory.lookupUsedClassMap(new MapperKey(classMap.getAType(),
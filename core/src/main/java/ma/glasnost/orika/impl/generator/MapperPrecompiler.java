@@ -0,0 +1,199 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javassist.CannotCompileException;
+import javassist.CtClass;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.impl.ConfigurableMapper;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MapperPrecompiler compiles, at build time, the mappers and object factories
+ * of one or more {@link ConfigurableMapper}s: it builds each of them just as
+ * it would be built at runtime, and writes the compiled classes to an output
+ * directory (typically that of the project's classes), along with the
+ * {@value PrecompiledCompilerStrategy#PRECOMPILED_INDEX} index through which
+ * the {@link PrecompiledCompilerStrategy} finds them at runtime.<br>
+ * <br>
+ * The compiler strategy, and the lazy build, configured by a ConfigurableMapper
+ * are overridden while precompiling it; the ConfigurableMapper must therefore
+ * declare a constructor taking the <code>autoInit</code> flag (see
+ * {@link ConfigurableMapper#ConfigurableMapper(boolean)}), so that it can be
+ * instantiated without configuring itself.<br>
+ * <br>
+ * Precompiling saves the compilation of the mappers only: at runtime, the
+ * class-maps are still resolved and the source of the mappers is still
+ * generated from them, and its fingerprint is what selects the precompiled
+ * class. Usage:
+ *
+ * <pre>
+ * java ma.glasnost.orika.impl.generator.MapperPrecompiler &lt;outputDirectory&gt; &lt;configurableMapperClass&gt;...
+ * </pre>
+ *
+ */
+public class MapperPrecompiler {
+
+    private final static Logger LOG = LoggerFactory.getLogger(MapperPrecompiler.class);
+
+    private final File outputDirectory;
+    private final PrecompilingCompilerStrategy compilerStrategy;
+
+    /**
+     * @param outputDirectory
+     *            the directory to which the classes and the index are written
+     */
+    public MapperPrecompiler(File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+        this.compilerStrategy = new PrecompilingCompilerStrategy(outputDirectory);
+    }
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length < 2) {
+            System.err.println("Usage: " + MapperPrecompiler.class.getName() + " <outputDirectory> <configurableMapperClass>...");
+            System.exit(1);
+        }
+        MapperPrecompiler precompiler = new MapperPrecompiler(new File(args[0]));
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        for (int i = 1; i < args.length; ++i) {
+            precompiler.precompile(Class.forName(args[i], true, classLoader).asSubclass(ConfigurableMapper.class));
+        }
+        precompiler.writeIndex();
+    }
+
+    /**
+     * Generates the mappers and object factories of the specified
+     * ConfigurableMapper, and writes their classes to the output directory.
+     *
+     * @param configurableMapperClass
+     *            the ConfigurableMapper to precompile
+     */
+    public void precompile(Class<? extends ConfigurableMapper> configurableMapperClass) {
+        ConfigurableMapper configurableMapper = newInstance(configurableMapperClass);
+
+        DefaultMapperFactory.Builder factoryBuilder = new DefaultMapperFactory.Builder();
+        invoke(configurableMapper, "configureFactoryBuilder", DefaultMapperFactory.Builder.class, factoryBuilder);
+        factoryBuilder.compilerStrategy(compilerStrategy).lazyBuild(false);
+
+        MapperFactory factory = factoryBuilder.build();
+        invoke(configurableMapper, "configure", MapperFactory.class, factory);
+        factory.getMapperFacade();
+
+        LOG.info("Precompiled {}: {} classes so far", configurableMapperClass.getName(), compilerStrategy.precompiled.size());
+    }
+
+    /**
+     * Writes the index of the classes precompiled so far, merged with any
+     * index already present in the output directory.
+     *
+     * @throws IOException
+     */
+    public void writeIndex() throws IOException {
+        File indexFile = new File(outputDirectory, PrecompiledCompilerStrategy.PRECOMPILED_INDEX);
+        Properties index = new Properties();
+        if (indexFile.exists()) {
+            try (InputStream in = new FileInputStream(indexFile)) {
+                index.load(in);
+            }
+        } else if (!indexFile.getParentFile().exists() && !indexFile.getParentFile().mkdirs()) {
+            throw new IOException("Could not create directory for " + indexFile);
+        }
+        index.putAll(compilerStrategy.precompiled);
+        try (OutputStream out = new FileOutputStream(indexFile)) {
+            index.store(out, "Classes precompiled by " + MapperPrecompiler.class.getName());
+        }
+    }
+
+    private static ConfigurableMapper newInstance(Class<? extends ConfigurableMapper> configurableMapperClass) {
+        Constructor<? extends ConfigurableMapper> constructor;
+        try {
+            constructor = configurableMapperClass.getDeclaredConstructor(boolean.class);
+        } catch (NoSuchMethodException e) {
+            /*
+             * The other constructors configure the mapper with its own
+             * compiler strategy, before it could be configured for
+             * precompiling
+             */
+            throw new MappingException(configurableMapperClass + " cannot be precompiled: it must declare a constructor taking the "
+                    + "autoInit flag, which passes it to ConfigurableMapper(boolean)");
+        }
+        try {
+            constructor.setAccessible(true);
+            return constructor.newInstance(false);
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new MappingException("Could not instantiate " + configurableMapperClass, e);
+        } catch (InvocationTargetException e) {
+            throw new MappingException("Could not instantiate " + configurableMapperClass, e.getCause());
+        }
+    }
+
+    private static <T> void invoke(ConfigurableMapper configurableMapper, String methodName, Class<T> parameterType, T argument) {
+        try {
+            Method method = ConfigurableMapper.class.getDeclaredMethod(methodName, parameterType);
+            method.setAccessible(true);
+            method.invoke(configurableMapper, argument);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new MappingException("Could not configure " + configurableMapper.getClass(), e.getCause());
+        }
+    }
+
+    /**
+     * Compiles classes with Javassist, and writes each of them to the output
+     * directory, recording its name by fingerprint.
+     */
+    private static class PrecompilingCompilerStrategy extends JavassistCompilerStrategy {
+
+        private final File outputDirectory;
+        private final Map<String, String> precompiled = new ConcurrentHashMap<String, String>();
+
+        private PrecompilingCompilerStrategy(File outputDirectory) {
+            this.outputDirectory = outputDirectory;
+        }
+
+        @Override
+        protected void writeClassFile(SourceCodeContext sourceCode, CtClass byteCodeClass) throws IOException {
+            super.writeClassFile(sourceCode, byteCodeClass);
+            try {
+                byteCodeClass.writeFile(outputDirectory.getAbsolutePath());
+            } catch (CannotCompileException e) {
+                throw new IllegalArgumentException(e);
+            }
+            precompiled.put(sourceCode.getFingerprint(), byteCodeClass.getName());
+        }
+    }
+}
@@ -23,6 +23,9 @@ import ma.glasnost.orika.metadata.Property;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
@@ -210,12 +213,19 @@ public class MultiOccurrenceVariableRef extends VariableRef {
         if (isArray()) {
             return "new " + rawType().getComponentType().getCanonicalName() + "[" + sizeExpr + "]";
         } else {
-            if (type().isConcrete()) {
-                return newInstance(type().getRawType());
-            }
-            else {
-                return newInstance(DefaultConcreteTypeMap.get(type().getRawType()));
+            Class<?> concreteType = type().isConcrete() ? type().getRawType() : DefaultConcreteTypeMap.get(type().getRawType());
+            if (!"".equals(sizeExpr)) {
+                /*
+                 * Pre-size the collections of the JDK whose constructor takes
+                 * their initial capacity
+                 */
+                if (ArrayList.class.equals(concreteType)) {
+                    return "new " + concreteType.getCanonicalName() + "(" + sizeExpr + ")";
+                } else if (HashSet.class.equals(concreteType) || LinkedHashSet.class.equals(concreteType)) {
+                    return "new " + concreteType.getCanonicalName() + "(Math.max(16, (int) ((" + sizeExpr + ") / .75f) + 1))";
+                }
             }
+            return newInstance(concreteType);
         }
     }
 
@@ -0,0 +1,159 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PrecompiledCompilerStrategy loads the classes of the mappers and object
+ * factories which were compiled at build time by the {@link MapperPrecompiler},
+ * rather than compiling their generated source again.<br>
+ * The precompiled classes are found through the
+ * {@value #PRECOMPILED_INDEX} resources visible to the context class-loader,
+ * by the {@link SourceCodeContext#getFingerprint() fingerprint} of the
+ * generated class; anything which was not precompiled (or was precompiled from
+ * a different configuration) is compiled by the fallback compiler strategy.<br>
+ * <br>
+ * The scope of this strategy is limited to saving the compilation step:
+ * startup still resolves the class-maps and generates the source of every
+ * mapper and object factory, since the fingerprint is computed from that
+ * source. The source also determines the converters, mappers and types the
+ * generated class refers to (by index), which are wired into each instance at
+ * runtime. It is therefore not an ahead-of-time mapping facility, and does not
+ * make Orika usable where code cannot be generated at runtime.<br>
+ * <br>
+ * This strategy may also be selected using the
+ * {@link ma.glasnost.orika.OrikaSystemProperties#COMPILER_STRATEGY} system
+ * property, in which case it falls back to the
+ * {@link JavassistCompilerStrategy}.
+ *
+ */
+public class PrecompiledCompilerStrategy extends CompilerStrategy {
+
+    /**
+     * The resource which maps the fingerprints of the precompiled classes to
+     * their names
+     */
+    public static final String PRECOMPILED_INDEX = "META-INF/orika/precompiled.properties";
+
+    private final static Logger LOG = LoggerFactory.getLogger(PrecompiledCompilerStrategy.class);
+
+    private static final String WRITE_SOURCE_FILES_BY_DEFAULT = "false";
+    private static final String WRITE_CLASS_FILES_BY_DEFAULT = "false";
+
+    private final CompilerStrategy fallback;
+
+    /**
+     * The index of precompiled classes visible to each class-loader; a
+     * WeakHashMap is used to avoid retaining references to child class-loaders
+     */
+    private final Map<ClassLoader, Map<String, String>> indexes = new WeakHashMap<ClassLoader, Map<String, String>>(4);
+
+    /**
+     * Constructs a new PrecompiledCompilerStrategy which falls back to the
+     * {@link JavassistCompilerStrategy}
+     */
+    public PrecompiledCompilerStrategy() {
+        this(new JavassistCompilerStrategy());
+    }
+
+    /**
+     * Constructs a new PrecompiledCompilerStrategy
+     *
+     * @param fallback
+     *            the compiler strategy used for the classes which were not
+     *            precompiled
+     */
+    public PrecompiledCompilerStrategy(CompilerStrategy fallback) {
+        super(WRITE_SOURCE_FILES_BY_DEFAULT, WRITE_CLASS_FILES_BY_DEFAULT);
+        this.fallback = fallback;
+    }
+
+    public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        String className = getIndex(classLoader).get(sourceCode.getFingerprint());
+        if (className != null) {
+            try {
+                Class<?> precompiledClass = Class.forName(className, true, classLoader);
+                if (sourceCode.getSuperClass().isAssignableFrom(precompiledClass)) {
+                    return precompiledClass;
+                }
+                LOG.warn("Precompiled class {} does not extend {}; compiling {} instead", className, sourceCode.getSuperClass(),
+                        sourceCode.getClassName());
+            } catch (ClassNotFoundException | LinkageError e) {
+                LOG.warn("Could not load precompiled class " + className + "; compiling " + sourceCode.getClassName() + " instead", e);
+            }
+        }
+        return fallback.compileClass(sourceCode);
+    }
+
+    public void assureTypeIsAccessible(Class<?> type) throws SourceCodeGenerationException {
+        fallback.assureTypeIsAccessible(type);
+    }
+
+    /**
+     * Returns the index of the precompiled classes visible to the specified
+     * class-loader, reading it on first use.
+     *
+     * @param classLoader
+     * @return the names of the precompiled classes, by fingerprint
+     */
+    private Map<String, String> getIndex(ClassLoader classLoader) {
+        synchronized (indexes) {
+            Map<String, String> index = indexes.get(classLoader);
+            if (index == null) {
+                index = readIndex(classLoader);
+                indexes.put(classLoader, index);
+            }
+            return index;
+        }
+    }
+
+    private static Map<String, String> readIndex(ClassLoader classLoader) {
+        Map<String, String> index = new HashMap<String, String>();
+        try {
+            Enumeration<URL> resources = classLoader != null ? classLoader.getResources(PRECOMPILED_INDEX)
+                    : ClassLoader.getSystemResources(PRECOMPILED_INDEX);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                Properties properties = new Properties();
+                try (InputStream in = resource.openStream()) {
+                    properties.load(in);
+                }
+                for (String fingerprint : properties.stringPropertyNames()) {
+                    index.put(fingerprint, properties.getProperty(fingerprint));
+                }
+                LOG.debug("Read {} precompiled classes from {}", properties.size(), resource);
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not read the index of precompiled classes; all classes will be compiled", e);
+        }
+        return index;
+    }
+}
@@ -31,6 +31,9 @@ import ma.glasnost.orika.impl.util.ClassUtil;
 import ma.glasnost.orika.metadata.*;
 import ma.glasnost.orika.property.PropertyResolverStrategy;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -219,6 +222,39 @@ public class SourceCodeContext {
         return sourceBuilder.toString() + "\n}";
     }
     
+    /**
+     * Returns a fingerprint of the generated class: a digest of its package,
+     * super-class, fields and methods, which leaves out the (unique) class
+     * name. Classes generated from the same configuration, by the same version
+     * of the generator, therefore share the same fingerprint from one run to
+     * the next.<br>
+     * The fingerprint is only known once the class has been generated, so
+     * the compiler strategies which reuse classes by fingerprint save their
+     * compilation, but not their generation.
+     * 
+     * @return the fingerprint of the (generated) class
+     */
+    public String getFingerprint() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((packageName + "\n" + superClass.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+        for (String field : fields) {
+            digest.update((field + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        for (String method : methods) {
+            digest.update((method + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        for (byte b : digest.digest()) {
+            fingerprint.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return fingerprint.toString();
+    }
+    
     /**
      * Compile and return the (generated) class; this will also cause the
      * generated class to be detached from the class-pool, and any (optional)
@@ -78,17 +78,25 @@ public class ArrayOrCollectionToCollection extends AbstractSpecification {
                 out.append("\n");
                 out.append(statement("%s.addAll(asList(%s));", newDest, s));
             } else {
-                out.append("\n");
-                out.append(statement("%s.addAll(mapperFacade.mapAsList(asList(%s), %s.class, mappingContext));", newDest, s, d.elementTypeName()));
+                String sourceArray = d.validVariableName() + "Source__";
+                String index = d.validVariableName() + "Index__";
+                append(out,
+                        "\n",
+                        format("%s %s = %s;", s.typeName(), sourceArray, s),
+                        format("for (int %s = 0; %s < %s.length; ++%s) {", index, index, sourceArray, index),
+                        mapElement(sourceArray + "[" + index + "]", s, d, newDest, code),
+                        "}");
             }
         } else {
             if (code.isDebugEnabled()) {
                 code.debugField(fieldMap, "mapping Collection<" + s.elementTypeName() + "> to Collection<" + d.elementTypeName() + ">");
             }
+            String iterator = d.validVariableName() + "Iterator__";
             append(out,
                     "\n",
-                    format("%s.addAll(mapperFacade.mapAs%s(%s, %s, %s, mappingContext))", newDest, d.collectionType(), s,
-                            code.usedType(s.elementType()), code.usedType(d.elementType())));
+                    format("for (java.util.Iterator %s = %s.iterator(); %s.hasNext();) {", iterator, s, iterator),
+                    mapElement(iterator + ".next()", s, d, newDest, code),
+                    "}");
         }
         if (fieldMap.getInverse() != null) {
             final MultiOccurrenceVariableRef inverse = new MultiOccurrenceVariableRef(fieldMap.getInverse(), "orikaCollectionItem");
@@ -125,4 +133,26 @@ public class ArrayOrCollectionToCollection extends AbstractSpecification {
         return out.toString();
     }
     
+    /**
+     * Maps an element straight into the new destination collection through
+     * the BoundMapperFacade of the element types, which resolves the mapping
+     * strategy once for the property rather than for each element; null
+     * elements are skipped, as by MapperFacade.mapAsList.
+     * 
+     * @param element
+     *            the expression of the source element
+     * @param source
+     * @param destination
+     * @param newDestination
+     * @param code
+     * @return the code mapping the element
+     */
+    private String mapElement(String element, MultiOccurrenceVariableRef source, MultiOccurrenceVariableRef destination,
+            MultiOccurrenceVariableRef newDestination, SourceCodeContext code) {
+        String elementVar = newDestination.validVariableName() + "Element__";
+        return format("Object %s = %s;\n", elementVar, element)
+                + format("if (%s != null) {\n%s.add((%s) %s);\n}", elementVar, newDestination, destination.elementTypeName(),
+                        code.callMapper(source.elementType(), destination.elementType(), elementVar));
+    }
+    
 }
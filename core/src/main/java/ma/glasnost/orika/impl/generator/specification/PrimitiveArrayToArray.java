@@ -0,0 +1,130 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator.specification;
+
+import static java.lang.String.format;
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.converter.builtin.PrimitiveConversion;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+import ma.glasnost.orika.impl.generator.VariableRef;
+import ma.glasnost.orika.impl.util.ClassUtil;
+import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * PrimitiveArrayToArray handles mapping of an array of primitives to an array
+ * of the same primitive type (copied with System.arraycopy), of a wider
+ * primitive type, or of their wrappers, without boxing the elements into an
+ * intermediate list as ArrayOrCollectionToArray does.
+ */
+public class PrimitiveArrayToArray extends AbstractSpecification {
+    
+    public boolean appliesTo(FieldMap fieldMap) {
+        return fieldMap.getSource().isArray() && fieldMap.getDestination().isArray()
+                && convertsElements(mapperFactory, fieldMap.getSource().getType().getComponentType(), fieldMap.getDestination()
+                        .getType()
+                        .getComponentType());
+    }
+    
+    public String generateMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
+        
+        Class<?> sourceElementClass = source.type().getComponentType().getRawType();
+        Class<?> destinationElementClass = destination.type().getComponentType().getRawType();
+        if (code.isDebugEnabled()) {
+            code.debugField(fieldMap, "mapping " + sourceElementClass + "[] to " + destinationElementClass.getSimpleName() + "[]");
+        }
+        
+        String sourceArray = destination.validVariableName() + "Source__";
+        String newArray = destination.validVariableName() + "Array__";
+        StringBuilder out = new StringBuilder();
+        out.append(format("%s %s = %s; ", source.typeName(), sourceArray, source));
+        out.append(format("%s[] %s = new %s[%s.length]; ", destinationElementClass.getCanonicalName(), newArray,
+                destinationElementClass.getCanonicalName(), sourceArray));
+        if (sourceElementClass.equals(destinationElementClass)) {
+            out.append(format("System.arraycopy(%s, 0, %s, 0, %s.length); ", sourceArray, newArray, sourceArray));
+        } else {
+            String index = destination.validVariableName() + "Index__";
+            out.append(format("for (int %s = 0; %s < %s.length; ++%s) { %s[%s] = %s; } ", index, index, sourceArray, index, newArray,
+                    index, convertElement(sourceElementClass, destinationElementClass, sourceArray + "[" + index + "]")));
+        }
+        
+        String mapNull = shouldMapNulls(fieldMap, code) ? format(" else { %s; }", destination.assignIfPossible("null")) : "";
+        return format(" %s { %s%s; } %s", source.ifNotNull(), out, destination.assign(newArray), mapNull);
+    }
+    
+    /**
+     * Tests whether the elements of a primitive array can be converted
+     * directly to the given destination element type: without any conversion,
+     * by a widening primitive conversion, or by boxing them into a wrapper
+     * (after widening them if needed); elements for which a converter is
+     * registered are left to that converter, unless it reports the conversion
+     * as a {@link PrimitiveConversion}.
+     * 
+     * @param mapperFactory
+     * @param sourceElementType
+     * @param destinationElementType
+     * @return true if the elements can be converted directly
+     */
+    static boolean convertsElements(MapperFactory mapperFactory, Type<?> sourceElementType, Type<?> destinationElementType) {
+        if (sourceElementType == null || destinationElementType == null || !sourceElementType.isPrimitive()
+                || convertElement(sourceElementType.getRawType(), destinationElementType.getRawType(), "") == null) {
+            return false;
+        }
+        if (mapperFactory != null) {
+            Type<?> wrapperType = sourceElementType.getWrapperType();
+            Converter<Object, Object> converter = mapperFactory.getConverterFactory().getConverter(wrapperType, destinationElementType);
+            if (converter != null
+                    && !(converter instanceof PrimitiveConversion && ((PrimitiveConversion) converter).isPrimitiveConversion(wrapperType,
+                            destinationElementType))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @param sourceElementClass
+     *            a primitive type
+     * @param destinationElementClass
+     * @param element
+     *            the expression of the element to convert
+     * @return the expression converting the element to the destination type,
+     *         or null if it cannot be converted directly
+     */
+    static String convertElement(Class<?> sourceElementClass, Class<?> destinationElementClass, String element) {
+        if (destinationElementClass.isPrimitive()) {
+            if (destinationElementClass.equals(sourceElementClass)) {
+                return element;
+            } else if (ClassUtil.isWideningPrimitive(sourceElementClass, destinationElementClass)) {
+                return format("((%s) %s)", destinationElementClass.getName(), element);
+            }
+            return null;
+        }
+        Class<?> wrapper = ClassUtil.getWrapperType(sourceElementClass);
+        if (destinationElementClass.isAssignableFrom(wrapper)) {
+            return format("%s.valueOf(%s)", wrapper.getName(), element);
+        }
+        Class<?> primitive = ClassUtil.getPrimitiveType(destinationElementClass);
+        if (primitive != null && ClassUtil.isWideningPrimitive(sourceElementClass, primitive)) {
+            return format("%s.valueOf((%s) %s)", destinationElementClass.getName(), primitive.getName(), element);
+        }
+        return null;
+    }
+}
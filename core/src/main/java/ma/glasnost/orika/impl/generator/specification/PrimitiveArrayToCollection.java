@@ -0,0 +1,87 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator.specification;
+
+import static java.lang.String.format;
+import static ma.glasnost.orika.impl.generator.SourceCodeContext.append;
+import static ma.glasnost.orika.impl.generator.SourceCodeContext.statement;
+import ma.glasnost.orika.impl.generator.MultiOccurrenceVariableRef;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+import ma.glasnost.orika.impl.generator.VariableRef;
+import ma.glasnost.orika.metadata.FieldMap;
+
+/**
+ * PrimitiveArrayToCollection handles mapping of an array of primitives to a
+ * Collection of their wrappers (or of wider wrappers), boxing each element
+ * once rather than through an intermediate list as
+ * ArrayOrCollectionToCollection does.
+ */
+public class PrimitiveArrayToCollection extends AbstractSpecification {
+    
+    public boolean appliesTo(FieldMap fieldMap) {
+        return fieldMap.getSource().isArray() && fieldMap.getDestination().isCollection() && fieldMap.getInverse() == null
+                && PrimitiveArrayToArray.convertsElements(mapperFactory, fieldMap.getSource().getType().getComponentType(), fieldMap
+                        .getDestination()
+                        .getType()
+                        .getNestedType(0));
+    }
+    
+    public String generateMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
+        
+        MultiOccurrenceVariableRef s = MultiOccurrenceVariableRef.from(source);
+        MultiOccurrenceVariableRef d = MultiOccurrenceVariableRef.from(destination);
+        if (code.isDebugEnabled()) {
+            code.debugField(fieldMap, "mapping " + s.elementTypeName() + "[] to Collection<" + d.elementTypeName() + ">");
+        }
+        
+        StringBuilder out = new StringBuilder();
+        out.append(s.ifNotNull() + " {\n");
+        
+        String sourceArray = d.validVariableName() + "Source__";
+        out.append(statement("%s %s = %s", s.typeName(), sourceArray, s));
+        
+        MultiOccurrenceVariableRef newDest = new MultiOccurrenceVariableRef(d.type(), "new_" + d.validVariableName());
+        if (d.isAssignable()) {
+            out.append(statement(newDest.declare(d.newInstance(sourceArray + ".length"))));
+        } else {
+            out.append(statement(newDest.declare("" + d)));
+            out.append(statement("%s.clear()", newDest));
+        }
+        
+        String index = d.validVariableName() + "Index__";
+        String element = PrimitiveArrayToArray.convertElement(s.elementType().getRawType(), d.elementType().getRawType(), sourceArray + "["
+                + index + "]");
+        append(out,
+                format("for (int %s = 0; %s < %s.length; ++%s) {", index, index, sourceArray, index),
+                statement("%s.add(%s)", newDest, element),
+                "}");
+        
+        if (d.isAssignable()) {
+            out.append(statement(d.assign(newDest)));
+        }
+        
+        String assignNull = String.format("%s {\n%s;\n}", d.ifNotNull(), d.assignIfPossible("null"));
+        String mapNull = shouldMapNulls(fieldMap, code) ? format(" else {\n %s;\n}", assignNull) : "";
+        
+        append(out, "}" + mapNull);
+        
+        return out.toString();
+    }
+    
+}
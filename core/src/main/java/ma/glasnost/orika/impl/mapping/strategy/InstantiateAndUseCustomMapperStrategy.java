@@ -19,6 +19,7 @@
 package ma.glasnost.orika.impl.mapping.strategy;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import ma.glasnost.orika.Mapper;
 import ma.glasnost.orika.MappingContext;
@@ -47,7 +48,21 @@ public class InstantiateAndUseCustomMapperStrategy extends UseCustomMapperStrate
      * @param unenhancer
      */
     public InstantiateAndUseCustomMapperStrategy(Type<Object> sourceType, Type<Object> destinationType, Mapper<Object, Object> customMapper, ObjectFactory<Object> objectFactory, UnenhanceStrategy unenhancer) {
-    	super(sourceType, destinationType, customMapper, unenhancer);
+    	this(sourceType, destinationType, customMapper, objectFactory, unenhancer, null);
+    }
+    
+    /**
+     * Creates a new instance of InstantiateAndUseCustomMapperStrategy
+     * 
+     * @param sourceType
+     * @param destinationType
+     * @param customMapper
+     * @param objectFactory
+     * @param unenhancer
+     * @param acyclic
+     */
+    public InstantiateAndUseCustomMapperStrategy(Type<Object> sourceType, Type<Object> destinationType, Mapper<Object, Object> customMapper, ObjectFactory<Object> objectFactory, UnenhanceStrategy unenhancer, AtomicBoolean acyclic) {
+    	super(sourceType, destinationType, customMapper, unenhancer, acyclic);
         this.objectFactory = objectFactory;
     }
 
@@ -18,6 +18,8 @@
 
 package ma.glasnost.orika.impl.mapping.strategy;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import ma.glasnost.orika.Mapper;
 import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.metadata.Type;
@@ -38,7 +40,20 @@ public class MapExistingAndUseCustomMapperStrategy extends UseCustomMapperStrate
      * @param unenhancer
      */
     public MapExistingAndUseCustomMapperStrategy(Type<Object> sourceType, Type<Object> destinationType, Mapper<Object, Object> customMapper, UnenhanceStrategy unenhancer) {
-    	super(sourceType, destinationType, customMapper, unenhancer);
+    	this(sourceType, destinationType, customMapper, unenhancer, null);
+    }
+    
+    /**
+     * Creates a new instance of MapExistingAndUseCustomMapperStrategy
+     * 
+     * @param sourceType
+     * @param destinationType
+     * @param customMapper
+     * @param unenhancer
+     * @param acyclic
+     */
+    public MapExistingAndUseCustomMapperStrategy(Type<Object> sourceType, Type<Object> destinationType, Mapper<Object, Object> customMapper, UnenhanceStrategy unenhancer, AtomicBoolean acyclic) {
+    	super(sourceType, destinationType, customMapper, unenhancer, acyclic);
     }
 
     protected Object getInstance(Object sourceObject, Object destinationObject, MappingContext context) {
@@ -18,6 +18,8 @@
 
 package ma.glasnost.orika.impl.mapping.strategy;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import ma.glasnost.orika.Converter;
 import ma.glasnost.orika.Mapper;
 import ma.glasnost.orika.MappingStrategy;
@@ -42,6 +44,7 @@ public class MappingStrategyRecorder {
     private boolean copyByReference;
     private boolean mapReverse;
     private boolean instantiate;
+    private AtomicBoolean acyclic;
     
     private Mapper<Object, Object> resolvedMapper;
     private ObjectFactory<Object> resolvedObjectFactory;
@@ -78,6 +81,25 @@ public class MappingStrategyRecorder {
         this.instantiate = instantiate;
     }
     
+    /**
+     * @return the flag which is set while the resolved source type is known
+     *         not to take part in any cycle
+     */
+    public AtomicBoolean getAcyclic() {
+        return acyclic;
+    }
+    
+    /**
+     * Sets the flag which is set while the resolved source type is known not
+     * to take part in any cycle, in which case the strategy need not track
+     * mapped objects
+     * 
+     * @param acyclic
+     */
+    public void setAcyclic(final AtomicBoolean acyclic) {
+        this.acyclic = acyclic;
+    }
+    
     /**
      * @return the converter resolved for this strategy
      */
@@ -213,10 +235,10 @@ public class MappingStrategyRecorder {
             }
             if (resolvedObjectFactory != null) {
                 resolvedStrategy = new InstantiateAndUseCustomMapperStrategy(resolvedSourceType, resolvedDestinationType, resolvedMapper,
-                        resolvedObjectFactory, unenhanceStrategy);
+                        resolvedObjectFactory, unenhanceStrategy, acyclic);
             } else {
                 resolvedStrategy = new MapExistingAndUseCustomMapperStrategy(resolvedSourceType, resolvedDestinationType, resolvedMapper,
-                        unenhanceStrategy);
+                        unenhanceStrategy, acyclic);
             }
             
         }
@@ -252,6 +274,7 @@ public class MappingStrategyRecorder {
         if (getResolvedMapper() != null) {
             details.append(", mapper: " + getResolvedMapper());
             details.append(", mapReverse?: " + mapReverse);
+            details.append(", acyclic?: " + (acyclic != null && acyclic.get()));
         }
         details.append("]");
         
@@ -19,6 +19,7 @@
 package ma.glasnost.orika.impl.mapping.strategy;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import ma.glasnost.orika.Mapper;
 import ma.glasnost.orika.MappingContext;
@@ -38,6 +39,12 @@ public abstract class UseCustomMapperStrategy extends AbstractMappingStrategy {
      * The Unenhancer to be used for this strategy
      */
     protected final UnenhanceStrategy unenhancer;
+    /**
+     * Set while the source type is known not to take part in any cycle, in
+     * which case mapped objects are not tracked in the MappingContext; may be
+     * null
+     */
+    protected final AtomicBoolean acyclic;
     
     /**
      * Creates a new instance of UseCustomMapperStrategy
@@ -49,16 +56,36 @@ public abstract class UseCustomMapperStrategy extends AbstractMappingStrategy {
      */
     public UseCustomMapperStrategy(Type<Object> sourceType, Type<Object> destinationType, Mapper<Object, Object> customMapper,
             UnenhanceStrategy unenhancer) {
+        this(sourceType, destinationType, customMapper, unenhancer, null);
+    }
+    
+    /**
+     * Creates a new instance of UseCustomMapperStrategy
+     * 
+     * @param sourceType
+     * @param destinationType
+     * @param customMapper
+     * @param unenhancer
+     * @param acyclic
+     *            a flag which is set while instances of the source type can
+     *            never be reached again while mapping themselves, so that
+     *            mapped objects need not be cached in the MappingContext; may
+     *            be null
+     */
+    public UseCustomMapperStrategy(Type<Object> sourceType, Type<Object> destinationType, Mapper<Object, Object> customMapper,
+            UnenhanceStrategy unenhancer, AtomicBoolean acyclic) {
         super(sourceType, destinationType);
         this.customMapper = customMapper;
         this.unenhancer = unenhancer;
+        this.acyclic = acyclic;
     }
     
     public Object map(final Object sourceObject, final Object destinationObject, final MappingContext context) {
         
         Object resolvedSourceObject = unenhancer.unenhanceObject(sourceObject, sourceType);
         
-        Object cachedObject = context.getMappedObject(sourceObject, destinationType);
+        final boolean tracked = acyclic == null || !acyclic.get();
+        Object cachedObject = tracked ? context.getMappedObject(sourceObject, destinationType) : null;
         if (destinationObject == null) {
             if (cachedObject != null) {
                 return cachedObject;
@@ -70,7 +97,9 @@ public abstract class UseCustomMapperStrategy extends AbstractMappingStrategy {
         
         Object newInstance = getInstance(resolvedSourceObject, destinationObject, context);
         
-        context.cacheMappedObject(sourceObject, destinationType, newInstance);
+        if (tracked) {
+            context.cacheMappedObject(sourceObject, destinationType, newInstance);
+        }
         
         context.beginMapping(sourceType, resolvedSourceObject, destinationType, newInstance);
         try {
@@ -96,5 +125,6 @@ public abstract class UseCustomMapperStrategy extends AbstractMappingStrategy {
     protected void describeMembers(Map<String, Object> members) {
     	members.put("customMapper", customMapper);
     	members.put("unenhancer", unenhancer);
+    	members.put("acyclic", acyclic);
     }
 }
@@ -18,8 +18,17 @@
 
 package ma.glasnost.orika.impl.util;
 
+import java.util.Arrays;
+import java.util.List;
+
 public final class ClassUtil {
 
+    /**
+     * The primitive types in widening order; char widens from int onwards
+     */
+    private static final List<Class<?>> WIDENING_ORDER = Arrays.<Class<?>> asList(byte.class, short.class, char.class, int.class,
+            long.class, float.class, double.class);
+
     private ClassUtil() {
         
     }
@@ -82,4 +91,26 @@ public final class ClassUtil {
 		}
     }
 
+    /**
+     * Tests whether a value of the given primitive type is converted to the
+     * other one by a widening primitive conversion (JLS 5.1.2), which never
+     * fails and is applied implicitly by Java.
+     * 
+     * @param primitiveType
+     * @param otherPrimitiveType
+     * @return true if <code>primitiveType</code> widens to
+     *         <code>otherPrimitiveType</code>
+     */
+    public static boolean isWideningPrimitive(Class<?> primitiveType, Class<?> otherPrimitiveType) {
+        int rank = WIDENING_ORDER.indexOf(primitiveType);
+        int otherRank = WIDENING_ORDER.indexOf(otherPrimitiveType);
+        if (rank < 0 || otherRank < 0 || char.class.equals(otherPrimitiveType)) {
+            return false;
+        } else if (char.class.equals(primitiveType)) {
+            return otherRank >= WIDENING_ORDER.indexOf(int.class);
+        } else {
+            return rank < otherRank;
+        }
+    }
+
 }
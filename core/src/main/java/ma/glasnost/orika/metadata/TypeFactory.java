@@ -48,6 +48,21 @@ public abstract class TypeFactory {
      */
     private static final ConcurrentHashMap<TypeKey, WeakReference<Type<?>>> typeCache = new ConcurrentHashMap<TypeKey, WeakReference<Type<?>>>();
 
+    /**
+     * The Types resolved by valueOf(Class), kept with the classes themselves
+     * so that repeated lookups need not build a TypeKey; like the typeCache, this holds
+     * no static reference to classes of descendant class-loaders
+     */
+    private static final ClassValue<Type<?>> rawTypeCache = new ClassValue<Type<?>>() {
+        @Override
+        protected Type<?> computeValue(Class<?> rawType) {
+            if (rawType.isAnonymousClass() && rawType.getGenericSuperclass() instanceof ParameterizedType) {
+                return valueOf((ParameterizedType) rawType.getGenericSuperclass());
+            }
+            return intern(rawType, new java.lang.reflect.Type[0], new HashSet<java.lang.reflect.Type>());
+        }
+    };
+
     /**
      * The Type instance which represents the Object class
      */
@@ -59,14 +74,12 @@ public abstract class TypeFactory {
      * @param rawType
      * @return the resolved Type instance
      */
+    @SuppressWarnings("unchecked")
     public static <E> Type<E> valueOf(final Class<E> rawType) {
         if (rawType == null) {
             return null;
-        } else if (rawType.isAnonymousClass() && rawType.getGenericSuperclass() instanceof ParameterizedType) {
-            ParameterizedType genericSuper = (ParameterizedType) rawType.getGenericSuperclass();
-            return valueOf(genericSuper);
         } else {
-            return intern(rawType, new java.lang.reflect.Type[0], new HashSet<java.lang.reflect.Type>());
+            return (Type<E>) rawTypeCache.get(rawType);
         }
     }
 
@@ -0,0 +1,193 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.util;
+
+/**
+ * IdentityMappedObjectCache records the objects mapped during a single
+ * mapping request, keyed by the identity of the source object together with
+ * the unique index of the destination type.<br>
+ * <br>
+ * Entries live in one open-addressing table (with linear probing) held in
+ * parallel arrays, so that caching an object costs no allocation beyond the
+ * occasional doubling of the table, and a lookup costs a single probe
+ * sequence. The slots in use are also recorded, so that clearing the cache
+ * costs no more than the entries it held, whatever the size of its table.
+ * Clearing keeps the table, so a pooled MappingContext reuses it for the
+ * next request; tables grown beyond
+ * {@link #MAX_RETAINED_CAPACITY} slots are released on clear instead, so
+ * that one unusually large graph does not pin its memory in the pool.
+ * 
+ */
+public class IdentityMappedObjectCache {
+    
+    /**
+     * The largest table (in slots) kept by {@link #clear()}
+     */
+    public static final int MAX_RETAINED_CAPACITY = 1 << 18;
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private Object[] sources;
+    private int[] typeIndexes;
+    private Object[] destinations;
+    private int[] usedSlots;
+    private int size;
+    private int threshold;
+    
+    /**
+     * Constructs a new, empty cache.
+     */
+    public IdentityMappedObjectCache() {
+        allocate(INITIAL_CAPACITY);
+    }
+    
+    private void allocate(int capacity) {
+        sources = new Object[capacity];
+        typeIndexes = new int[capacity];
+        destinations = new Object[capacity];
+        threshold = capacity >>> 1;
+        usedSlots = new int[threshold + 1];
+    }
+    
+    private static int hash(Object source, int typeIndex) {
+        int h = System.identityHashCode(source) * 31 + typeIndex;
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * @param source
+     *            the source object
+     * @param typeIndex
+     *            the unique index of the destination type
+     * @return the object mapped from <code>source</code> to the destination
+     *         type, or null if none has been cached
+     */
+    public Object get(Object source, int typeIndex) {
+        final Object[] keys = sources;
+        final int mask = keys.length - 1;
+        int i = hash(source, typeIndex) & mask;
+        Object key;
+        while ((key = keys[i]) != null) {
+            if (key == source && typeIndexes[i] == typeIndex) {
+                return destinations[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+    
+    /**
+     * Caches the object mapped from <code>source</code> to the destination
+     * type, replacing any object previously cached for the same pair.
+     * 
+     * @param source
+     *            the source object
+     * @param typeIndex
+     *            the unique index of the destination type
+     * @param destination
+     *            the mapped object
+     */
+    public void put(Object source, int typeIndex, Object destination) {
+        final Object[] keys = sources;
+        final int mask = keys.length - 1;
+        int i = hash(source, typeIndex) & mask;
+        Object key;
+        while ((key = keys[i]) != null) {
+            if (key == source && typeIndexes[i] == typeIndex) {
+                destinations[i] = destination;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = source;
+        typeIndexes[i] = typeIndex;
+        destinations[i] = destination;
+        usedSlots[size] = i;
+        if (++size > threshold) {
+            grow();
+        }
+    }
+    
+    private void grow() {
+        final Object[] oldSources = sources;
+        final int[] oldTypeIndexes = typeIndexes;
+        final Object[] oldDestinations = destinations;
+        final int[] oldUsedSlots = usedSlots;
+        allocate(oldSources.length << 1);
+        final int mask = sources.length - 1;
+        for (int k = 0; k < size; ++k) {
+            int j = oldUsedSlots[k];
+            Object source = oldSources[j];
+            int i = hash(source, oldTypeIndexes[j]) & mask;
+            while (sources[i] != null) {
+                i = (i + 1) & mask;
+            }
+            sources[i] = source;
+            typeIndexes[i] = oldTypeIndexes[j];
+            destinations[i] = oldDestinations[j];
+            usedSlots[k] = i;
+        }
+    }
+    
+    /**
+     * @return the number of cached objects
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * @return true if no objects are cached
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * @return the current number of slots in the table
+     */
+    public int capacity() {
+        return sources.length;
+    }
+    
+    /**
+     * Removes all cached objects, keeping the table for reuse unless it has
+     * grown beyond {@link #MAX_RETAINED_CAPACITY} slots; only the slots in
+     * use are cleared.
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        if (sources.length > MAX_RETAINED_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        } else {
+            final Object[] keys = sources;
+            final Object[] values = destinations;
+            final int[] slots = usedSlots;
+            for (int k = 0; k < size; ++k) {
+                int i = slots[k];
+                keys[i] = null;
+                values[i] = null;
+            }
+        }
+        size = 0;
+    }
+}
@@ -60,6 +60,8 @@ public class SortedCollection<V> implements Collection<V> {
 
 	private volatile List<V> sortedItems = null;
 
+	private volatile int modificationCount;
+
 	/**
 	 * @param ordering
 	 */
@@ -95,6 +97,7 @@ public class SortedCollection<V> implements Collection<V> {
 				}
 				nodes.add(newNode);
 				sortedItems = null;
+				++modificationCount;
 				return true;
 			}
 			return false;
@@ -122,6 +125,7 @@ public class SortedCollection<V> implements Collection<V> {
                 items.clear();
                 sortedItems = null;
                 result = sorted.remove(o);
+                ++modificationCount;
                 addAll(sorted);
             } finally {
                 rwl.writeLock().unlock();
@@ -136,6 +140,7 @@ public class SortedCollection<V> implements Collection<V> {
 			nodes.clear();
 			items.clear();
 			sortedItems = null;
+			++modificationCount;
 		} finally {
 			rwl.writeLock().unlock();
 		}
@@ -247,6 +252,15 @@ public class SortedCollection<V> implements Collection<V> {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * @return a number which changes whenever items are added to or removed
+	 *         from this collection; it may be used to tell whether structures
+	 *         derived from its contents are still current
+	 */
+	public int getModificationCount() {
+		return modificationCount;
+	}
+
 	/**
 	 * @return the first item in this collection
 	 */
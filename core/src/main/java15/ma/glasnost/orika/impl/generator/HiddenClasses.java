@@ -0,0 +1,59 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.impl.generator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+
+/**
+ * Provides the {@link HiddenClassDefiner} of the current runtime, which
+ * defines hidden classes using {@link Lookup#defineHiddenClass}.<br>
+ * <br>
+ * Defining a hidden class requires a lookup with full privilege access on a
+ * class of its package: Orika obtains one itself only when it shares the
+ * module (that is, for classes on the class-path, the class-loader) of the
+ * anchor class; otherwise, the lookup must be supplied by the application.
+ *
+ */
+final class HiddenClasses {
+
+    private static final HiddenClassDefiner DEFINER = new LookupHiddenClassDefiner();
+
+    private HiddenClasses() {
+        // prevent instantiation
+    }
+
+    /**
+     * @return the definer of hidden classes, or null if hidden classes are not
+     *         supported by this runtime
+     */
+    static HiddenClassDefiner getDefiner() {
+        return DEFINER;
+    }
+
+    private static final class LookupHiddenClassDefiner implements HiddenClassDefiner {
+
+        public Class<?> define(Class<?> anchor, Lookup hostLookup, byte[] bytes) throws IllegalAccessException {
+            Lookup lookup = hostLookup != null ? hostLookup : MethodHandles.privateLookupIn(anchor, MethodHandles.lookup());
+            if (!lookup.hasFullPrivilegeAccess()) {
+                throw new IllegalAccessException(lookup + " has no full privilege access on " + anchor.getPackageName());
+            }
+            return lookup.defineHiddenClass(bytes, true).lookupClass();
+        }
+    }
+}
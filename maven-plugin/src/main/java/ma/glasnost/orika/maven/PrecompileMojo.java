@@ -0,0 +1,132 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import ma.glasnost.orika.impl.ConfigurableMapper;
+import ma.glasnost.orika.impl.generator.MapperPrecompiler;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+/**
+ * Compiles the mappers and object factories of the configured
+ * {@link ConfigurableMapper}s, using the {@link MapperPrecompiler}, into the
+ * project's output directory; they are then loaded at runtime by the
+ * {@link ma.glasnost.orika.impl.generator.PrecompiledCompilerStrategy} in
+ * place of compiling their source, which is still generated at runtime.
+ *
+ * <pre>
+ * &lt;plugin&gt;
+ *   &lt;groupId&gt;ma.glasnost.orika&lt;/groupId&gt;
+ *   &lt;artifactId&gt;orika-maven-plugin&lt;/artifactId&gt;
+ *   &lt;executions&gt;
+ *     &lt;execution&gt;
+ *       &lt;goals&gt;&lt;goal&gt;precompile&lt;/goal&gt;&lt;/goals&gt;
+ *       &lt;configuration&gt;
+ *         &lt;configurableMappers&gt;
+ *           &lt;configurableMapper&gt;com.example.MyMapper&lt;/configurableMapper&gt;
+ *         &lt;/configurableMappers&gt;
+ *       &lt;/configuration&gt;
+ *     &lt;/execution&gt;
+ *   &lt;/executions&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ *
+ */
+@Mojo(name = "precompile", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME, threadSafe = true)
+public class PrecompileMojo extends AbstractMojo {
+
+    /**
+     * The fully-qualified names of the ConfigurableMappers to precompile; each
+     * of them must declare a constructor taking the <code>autoInit</code> flag
+     */
+    @Parameter(required = true)
+    private List<String> configurableMappers;
+
+    /**
+     * The directory to which the generated classes are written
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File outputDirectory;
+
+    @Parameter(defaultValue = "${project.runtimeClasspathElements}", readonly = true, required = true)
+    private List<String> classpathElements;
+
+    /**
+     * Skips the precompilation
+     */
+    @Parameter(property = "orika.precompile.skip", defaultValue = "false")
+    private boolean skip;
+
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping the precompilation of mappers");
+            return;
+        }
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+        URLClassLoader projectClassLoader = new URLClassLoader(toUrls(classpathElements), getClass().getClassLoader());
+        currentThread.setContextClassLoader(projectClassLoader);
+        try {
+            MapperPrecompiler precompiler = new MapperPrecompiler(outputDirectory);
+            for (String configurableMapper : configurableMappers) {
+                getLog().info("Precompiling the mappers of " + configurableMapper);
+                precompiler.precompile(Class.forName(configurableMapper, true, projectClassLoader).asSubclass(ConfigurableMapper.class));
+            }
+            precompiler.writeIndex();
+        } catch (ClassNotFoundException e) {
+            throw new MojoExecutionException("Could not load ConfigurableMapper", e);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Could not write the index of precompiled classes", e);
+        } catch (RuntimeException e) {
+            throw new MojoExecutionException("Could not precompile the mappers", e);
+        } finally {
+            currentThread.setContextClassLoader(originalClassLoader);
+            try {
+                projectClassLoader.close();
+            } catch (IOException e) {
+                getLog().debug(e);
+            }
+        }
+    }
+
+    private static URL[] toUrls(List<String> classpathElements) throws MojoExecutionException {
+        URL[] urls = new URL[classpathElements.size()];
+        try {
+            for (int i = 0; i < urls.length; ++i) {
+                urls[i] = new File(classpathElements.get(i)).toURI().toURL();
+            }
+        } catch (MalformedURLException e) {
+            throw new MojoExecutionException("Invalid classpath element", e);
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.boundmapperfacade;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.test.MappingUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CanonicalBoundMapperFacadeTestCase {
+    
+    @Test
+    public void facadesAreSharedPerTypePair() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+        
+        BoundMapperFacade<Source, Destination> facade = factory.getMapperFacade(Source.class, Destination.class);
+        Assert.assertSame(facade, factory.getMapperFacade(Source.class, Destination.class));
+        Assert.assertSame(facade, factory.getMapperFacade(TypeFactory.valueOf(Source.class), TypeFactory.valueOf(Destination.class), true));
+        
+        BoundMapperFacade<Source, Destination> nonCyclic = factory.getMapperFacade(Source.class, Destination.class, false);
+        Assert.assertNotSame(facade, nonCyclic);
+        Assert.assertSame(nonCyclic, factory.getMapperFacade(Source.class, Destination.class, false));
+        Assert.assertNotSame(facade, factory.getMapperFacade(Destination.class, Source.class));
+    }
+    
+    @Test
+    public void facadesAreRenewedWhenTheFactoryChanges() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+        
+        BoundMapperFacade<Source, Destination> facade = factory.getMapperFacade(Source.class, Destination.class);
+        Source source = new Source();
+        source.name = "name";
+        Assert.assertEquals("name", facade.map(source).name);
+        
+        factory.classMap(Other.class, Destination.class).byDefault().register();
+        
+        BoundMapperFacade<Source, Destination> renewed = factory.getMapperFacade(Source.class, Destination.class);
+        Assert.assertNotSame(facade, renewed);
+        Assert.assertEquals("name", renewed.map(source).name);
+    }
+    
+    public static class Source {
+        public String name;
+    }
+    
+    public static class Destination {
+        public String name;
+    }
+    
+    public static class Other {
+        public String name;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.capturefieldcontext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.Properties;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FieldContextStackTestCase {
+
+    private static final Type<String> STRING = TypeFactory.valueOf(String.class);
+    private static final Type<Integer> INTEGER = TypeFactory.valueOf(Integer.class);
+
+    @Test
+    public void deeplyNestedFieldContext() {
+        MappingContext context = new MappingContext(new HashMap<Object, Object>());
+
+        int depth = 20;
+        for (int i = 0; i < depth; ++i) {
+            context.beginMappingField("s" + i, STRING, "source" + i, "d" + i, INTEGER, i);
+        }
+
+        String[] sourcePaths = context.getSourceExpressionPaths();
+        Assert.assertEquals(depth, sourcePaths.length);
+        Assert.assertEquals("s19", sourcePaths[19]);
+        Assert.assertEquals(depth, context.getDestinationObjects().length);
+        Assert.assertEquals(19, context.getDestinationObjects()[19]);
+        Assert.assertEquals(STRING, context.getSourceTypePaths()[0]);
+        Assert.assertEquals(INTEGER, context.getDestinationTypePaths()[0]);
+        Assert.assertTrue(context.getFullyQualifiedSourcePath().startsWith("source.s0.s1.s2"));
+        Assert.assertTrue(context.getFullyQualifiedDestinationPath().endsWith(".d18.d19"));
+
+        context.endMappingField();
+        context.endMappingField();
+        Assert.assertTrue(context.getFullyQualifiedDestinationPath().endsWith(".d16.d17"));
+        Assert.assertEquals(depth - 2, context.getSourceObjects().length);
+
+        context.reset();
+        Assert.assertEquals("source", context.getFullyQualifiedSourcePath());
+        Assert.assertEquals(0, context.getSourceExpressionPaths().length);
+
+        context.beginMappingField("name", STRING, "Kermit", "name", STRING, null);
+        Assert.assertEquals("source.name", context.getFullyQualifiedSourcePath());
+        Assert.assertEquals("Kermit", context.getSourceObjects()[0]);
+    }
+
+    @Test
+    public void fieldMappingStackOfSubclasses() {
+        StackDepthMappingContext context = new StackDepthMappingContext();
+        context.beginMappingField("name", STRING, "Kermit", "name", STRING, null);
+        context.beginMappingField("length", INTEGER, 6, "length", INTEGER, null);
+        Assert.assertEquals(2, context.stackDepth());
+        Assert.assertEquals("length", context.currentSourceName());
+
+        context.endMappingField();
+        context.reset();
+        Assert.assertEquals(0, context.stackDepth());
+    }
+
+    @Test
+    public void fieldContextNotCaptured() {
+        Map<Object, Object> globalProperties = new HashMap<Object, Object>();
+        globalProperties.put(Properties.CAPTURE_FIELD_CONTEXT, false);
+        MappingContext context = new MappingContext(globalProperties);
+
+        context.beginMappingField("name", STRING, "Kermit", "name", STRING, null);
+        Assert.assertNull(context.getFullyQualifiedSourcePath());
+        Assert.assertNull(context.getSourceObjects());
+        context.endMappingField();
+    }
+
+    private static class StackDepthMappingContext extends MappingContext {
+
+        StackDepthMappingContext() {
+            super(new HashMap<Object, Object>());
+        }
+
+        int stackDepth() {
+            return fieldMappingStack.size();
+        }
+
+        Object currentSourceName() {
+            return fieldMappingStack.get(fieldMappingStack.size() - 1)[StackElement.SOURCE_NAME.ordinal()];
+        }
+    }
+}
@@ -131,4 +131,68 @@ public class ConverterResolutionTestCase {
         BuiltinConverters.register(factory.getConverterFactory());
         Assert.assertSame(cc, factory.getConverterFactory().getConverter(TypeFactory.valueOf(Date.class), TypeFactory.valueOf(Date.class)));
     }
+    
+    @Test
+    public void testResolveMissingConverterOnce() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        
+        ConverterFactory converterFactory = factory.getConverterFactory();
+        CountingNameToStringConverter counting = new CountingNameToStringConverter();
+        converterFactory.registerConverter(counting);
+        
+        Assert.assertNull(converterFactory.getConverter(TypeFactory.valueOf(Name.class), TypeFactory.valueOf(Integer.class)));
+        int scans = counting.canConvertCalls;
+        Assert.assertTrue(scans > 0);
+        Assert.assertNull(converterFactory.getConverter(TypeFactory.valueOf(Name.class), TypeFactory.valueOf(Integer.class)));
+        Assert.assertEquals(scans, counting.canConvertCalls);
+        
+        /*
+         * Registering a converter forgets the missing converters
+         */
+        converterFactory.registerConverter(new NameToIntegerConverter());
+        Converter<?, ?> converter = converterFactory.getConverter(TypeFactory.valueOf(Name.class), TypeFactory.valueOf(Integer.class));
+        Assert.assertEquals(NameToIntegerConverter.class, converter.getClass());
+    }
+    
+    @Test
+    public void testResolveConverterForPrimitiveOnce() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        
+        ConverterFactory converterFactory = factory.getConverterFactory();
+        CountingNameToStringConverter counting = new CountingNameToStringConverter();
+        converterFactory.registerConverter(counting);
+        converterFactory.registerConverter(new IntegerToNameConverter());
+        
+        Converter<?, ?> converter = converterFactory.getConverter(TypeFactory.valueOf(int.class), TypeFactory.valueOf(Name.class));
+        Assert.assertEquals(IntegerToNameConverter.class, converter.getClass());
+        int scans = counting.canConvertCalls;
+        Assert.assertSame(converter, converterFactory.getConverter(TypeFactory.valueOf(int.class), TypeFactory.valueOf(Name.class)));
+        Assert.assertEquals(scans, counting.canConvertCalls);
+    }
+    
+    public static class CountingNameToStringConverter extends NameToStringConverter {
+        
+        int canConvertCalls;
+        
+        public boolean canConvert(Type<?> sourceType, Type<?> destinationType) {
+            ++canConvertCalls;
+            return super.canConvert(sourceType, destinationType);
+        }
+    }
+    
+    public static class NameToIntegerConverter extends CustomConverter<Name, Integer> {
+        
+        public Integer convert(Name source, Type<? extends Integer> destinationType, MappingContext context) {
+            return source.first.length();
+        }
+    }
+    
+    public static class IntegerToNameConverter extends CustomConverter<Integer, Name> {
+        
+        public Name convert(Integer source, Type<? extends Name> destinationType, MappingContext context) {
+            Name name = new Name();
+            name.first = String.valueOf(source);
+            return name;
+        }
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.custommapper;
+
+import ma.glasnost.orika.CustomMapper;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.test.MappingUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that a registered mapper is found for any type assignable to one
+ * of its types, including interfaces and arrays.
+ *
+ */
+public class RegisteredMapperLookupTestCase {
+
+    @Test
+    public void testObjectMapperFoundForInterface() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.registerMapper(new CustomMapper<Object, Target>() {
+            @Override
+            public void mapAtoB(Object a, Target b, MappingContext context) {
+                b.setValue(String.valueOf(a));
+            }
+        });
+        factory.getMapperFacade();
+
+        Type<Named> namedType = TypeFactory.valueOf(Named.class);
+        Type<Target> targetType = TypeFactory.valueOf(Target.class);
+        Assert.assertTrue(factory.existsRegisteredMapper(namedType, targetType, false));
+        Assert.assertNotNull(factory.lookupMapper(new MapperKey(namedType, targetType)));
+        Assert.assertTrue(factory.existsRegisteredMapper(TypeFactory.valueOf(Named[].class), targetType, false));
+    }
+
+    @Test
+    public void testArrayMapperFoundForArrayOfSubtype() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.registerMapper(new CustomMapper<Named[], Target>() {
+            @Override
+            public void mapAtoB(Named[] a, Target b, MappingContext context) {
+                b.setValue(a.length > 0 ? a[0].getName() : null);
+            }
+        });
+        factory.registerMapper(new CustomMapper<Object[], Holder>() {
+            @Override
+            public void mapAtoB(Object[] a, Holder b, MappingContext context) {
+                b.setCount(a.length);
+            }
+        });
+        factory.getMapperFacade();
+
+        Type<Person[]> personArrayType = TypeFactory.valueOf(Person[].class);
+        Assert.assertTrue(factory.existsRegisteredMapper(personArrayType, TypeFactory.valueOf(Target.class), false));
+        Assert.assertTrue(factory.existsRegisteredMapper(personArrayType, TypeFactory.valueOf(Holder.class), false));
+        Assert.assertTrue(factory.existsRegisteredMapper(TypeFactory.valueOf(Person[][].class), TypeFactory.valueOf(Holder.class), false));
+        Assert.assertFalse(factory.existsRegisteredMapper(TypeFactory.valueOf(int[].class), TypeFactory.valueOf(Holder.class), false));
+    }
+
+    public interface Named {
+        String getName();
+    }
+
+    public static class Person implements Named {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Target {
+        private String value;
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    public static class Holder {
+        private int count;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewMethod;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.CachingCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Verifies that the CachingCompilerStrategy loads the classes it compiled on a
+ * previous run from its cache directory, and compiles them again once a type
+ * they refer to has changed, or their cache entry is unreadable.
+ *
+ */
+public class CachingCompilerStrategyTestCase {
+
+    private static final String BEAN_CLASS = "ma.glasnost.orika.test.generator.cache.Bean";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ClassLoader originalClassLoader;
+    private File cacheDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        originalClassLoader = Thread.currentThread().getContextClassLoader();
+        cacheDirectory = temporaryFolder.newFolder("cache");
+    }
+
+    @After
+    public void restoreClassLoader() {
+        Thread.currentThread().setContextClassLoader(originalClassLoader);
+    }
+
+    @Test
+    public void testCachedClassesLoaded() throws Exception {
+        ClassLoader beanClassLoader = beanClassLoader("v1", "name");
+
+        CountingCompilerStrategy firstRun = new CountingCompilerStrategy(cacheDirectory);
+        Assert.assertEquals("Ada", mapName(firstRun, beanClassLoader, "Ada"));
+        Assert.assertTrue(firstRun.compiled.get() > 0);
+        Assert.assertTrue(cacheDirectory.list().length > 0);
+
+        CountingCompilerStrategy secondRun = new CountingCompilerStrategy(cacheDirectory);
+        Assert.assertEquals("Grace", mapName(secondRun, beanClassLoader, "Grace"));
+        Assert.assertEquals(0, secondRun.compiled.get());
+    }
+
+    @Test
+    public void testStaleEntriesDiscarded() throws Exception {
+        CountingCompilerStrategy firstRun = new CountingCompilerStrategy(cacheDirectory);
+        Assert.assertEquals("Ada", mapName(firstRun, beanClassLoader("v1", "name"), "Ada"));
+        int compiled = firstRun.compiled.get();
+
+        /*
+         * Same properties, hence the same generated code, but a different
+         * implementation of the bean
+         */
+        CountingCompilerStrategy secondRun = new CountingCompilerStrategy(cacheDirectory);
+        Assert.assertEquals("v2:Grace", mapName(secondRun, beanClassLoader("v2", "\"v2:\" + name"), "Grace"));
+        Assert.assertEquals(compiled, secondRun.compiled.get());
+    }
+
+    @Test
+    public void testUnreadableEntriesDiscarded() throws Exception {
+        ClassLoader beanClassLoader = beanClassLoader("v1", "name");
+
+        CountingCompilerStrategy firstRun = new CountingCompilerStrategy(cacheDirectory);
+        mapName(firstRun, beanClassLoader, "Ada");
+        int compiled = firstRun.compiled.get();
+        for (File entry : cacheDirectory.listFiles()) {
+            try (FileOutputStream out = new FileOutputStream(entry)) {
+                out.write(new byte[] { 0, 0, 0, 1, 0 });
+            }
+        }
+
+        CountingCompilerStrategy secondRun = new CountingCompilerStrategy(cacheDirectory);
+        Assert.assertEquals("Grace", mapName(secondRun, beanClassLoader, "Grace"));
+        Assert.assertEquals(compiled, secondRun.compiled.get());
+
+        CountingCompilerStrategy thirdRun = new CountingCompilerStrategy(cacheDirectory);
+        Assert.assertEquals("Hedy", mapName(thirdRun, beanClassLoader, "Hedy"));
+        Assert.assertEquals(0, thirdRun.compiled.get());
+    }
+
+    /**
+     * Maps a bean, loaded by the specified class-loader, to a BeanDto.
+     */
+    private String mapName(CachingCompilerStrategy compilerStrategy, ClassLoader beanClassLoader, String name) throws Exception {
+        Thread.currentThread().setContextClassLoader(beanClassLoader);
+        try {
+            Class<?> beanClass = beanClassLoader.loadClass(BEAN_CLASS);
+            MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+            factory.classMap(beanClass, BeanDto.class).byDefault().register();
+            MapperFacade mapper = factory.getMapperFacade();
+
+            Object bean = beanClass.newInstance();
+            beanClass.getMethod("setName", String.class).invoke(bean, name);
+            return mapper.map(bean, BeanDto.class).getName();
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+    }
+
+    /**
+     * Writes a version of the Bean class, whose getter returns the specified
+     * expression, and returns a class-loader for it.
+     */
+    private ClassLoader beanClassLoader(String version, String getterExpression) throws Exception {
+        File classes = temporaryFolder.newFolder(version);
+        ClassPool pool = new ClassPool(true);
+        CtClass bean = pool.makeClass(BEAN_CLASS);
+        bean.addField(CtField.make("private String name;", bean));
+        bean.addMethod(CtNewMethod.make("public String getName() { return " + getterExpression + "; }", bean));
+        bean.addMethod(CtNewMethod.make("public void setName(String name) { this.name = name; }", bean));
+        bean.writeFile(classes.getAbsolutePath());
+        bean.detach();
+        return new URLClassLoader(new URL[] { classes.toURI().toURL() }, originalClassLoader);
+    }
+
+    public static class CountingCompilerStrategy extends CachingCompilerStrategy {
+        private final AtomicInteger compiled = new AtomicInteger();
+
+        public CountingCompilerStrategy(File cacheDirectory) {
+            super(cacheDirectory);
+        }
+
+        @Override
+        protected void writeClassFile(SourceCodeContext sourceCode, CtClass byteCodeClass) throws IOException {
+            compiled.incrementAndGet();
+            super.writeClassFile(sourceCode, byteCodeClass);
+        }
+    }
+
+    public static class BeanDto {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
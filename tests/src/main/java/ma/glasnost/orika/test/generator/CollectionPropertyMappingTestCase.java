@@ -0,0 +1,212 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that the elements of collection properties are mapped straight
+ * into the destination collection, each with the strategy of its own class,
+ * and that null elements are skipped.
+ *
+ */
+public class CollectionPropertyMappingTestCase {
+
+    @Test
+    public void testCollectionProperties() {
+        MapperFacade mapper = mapper();
+        Library library = new Library();
+        library.setBooks(Arrays.asList(book("Emma"), null, book("Persuasion")));
+        library.setShelves(new Book[] { book("Ulysses"), null });
+        library.setTitles(Arrays.asList("Emma", "Persuasion", "Emma"));
+
+        LibraryDto dto = mapper.map(library, LibraryDto.class);
+        Assert.assertEquals(2, dto.getBooks().size());
+        Assert.assertEquals("Emma", dto.getBooks().get(0).getTitle());
+        Assert.assertEquals("Persuasion", dto.getBooks().get(1).getTitle());
+        Assert.assertEquals(1, dto.getShelves().size());
+        Assert.assertEquals("Ulysses", dto.getShelves().iterator().next().getTitle());
+        Assert.assertEquals(Arrays.asList("Emma", "Persuasion", "Emma"), dto.getTitles());
+
+        Library copy = mapper.map(dto, Library.class);
+        Assert.assertEquals("Persuasion", copy.getBooks().get(1).getTitle());
+        Assert.assertEquals("Ulysses", copy.getShelves()[0].getTitle());
+    }
+
+    @Test
+    public void testPolymorphicElements() {
+        MapperFacade mapper = mapper();
+        Library library = new Library();
+        Novel novel = new Novel();
+        novel.setTitle("Emma");
+        novel.setAuthor("Austen");
+        library.setBooks(Arrays.asList(book("Ulysses"), novel, book("Dubliners")));
+
+        LibraryDto dto = mapper.map(library, LibraryDto.class);
+        Assert.assertEquals(BookDto.class, dto.getBooks().get(0).getClass());
+        Assert.assertEquals("Austen", ((NovelDto) dto.getBooks().get(1)).getAuthor());
+        Assert.assertEquals(BookDto.class, dto.getBooks().get(2).getClass());
+        Assert.assertEquals("Dubliners", dto.getBooks().get(2).getTitle());
+    }
+
+    @Test
+    public void testExistingCollection() {
+        MapperFacade mapper = mapper();
+        Library library = new Library();
+        library.setBooks(Arrays.asList(book("Emma")));
+        LibraryDto dto = new LibraryDto();
+        dto.setBooks(new ArrayList<BookDto>());
+        dto.getBooks().add(new BookDto());
+
+        mapper.map(library, dto);
+        Assert.assertEquals(1, dto.getBooks().size());
+        Assert.assertEquals("Emma", dto.getBooks().get(0).getTitle());
+    }
+
+    private static MapperFacade mapper() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Library.class, LibraryDto.class).byDefault().register();
+        factory.classMap(Book.class, BookDto.class).byDefault().register();
+        factory.classMap(Novel.class, NovelDto.class).use(Book.class, BookDto.class).byDefault().register();
+        return factory.getMapperFacade();
+    }
+
+    private static Book book(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        return book;
+    }
+
+    public static class Book {
+        private String title;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+    }
+
+    public static class Novel extends Book {
+        private String author;
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public void setAuthor(String author) {
+            this.author = author;
+        }
+    }
+
+    public static class BookDto {
+        private String title;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+    }
+
+    public static class NovelDto extends BookDto {
+        private String author;
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public void setAuthor(String author) {
+            this.author = author;
+        }
+    }
+
+    public static class Library {
+        private List<Book> books;
+        private Book[] shelves;
+        private List<String> titles;
+
+        public List<Book> getBooks() {
+            return books;
+        }
+
+        public void setBooks(List<Book> books) {
+            this.books = books;
+        }
+
+        public Book[] getShelves() {
+            return shelves;
+        }
+
+        public void setShelves(Book[] shelves) {
+            this.shelves = shelves;
+        }
+
+        public List<String> getTitles() {
+            return titles;
+        }
+
+        public void setTitles(List<String> titles) {
+            this.titles = titles;
+        }
+    }
+
+    public static class LibraryDto {
+        private List<BookDto> books;
+        private Set<BookDto> shelves;
+        private List<String> titles;
+
+        public List<BookDto> getBooks() {
+            return books;
+        }
+
+        public void setBooks(List<BookDto> books) {
+            this.books = books;
+        }
+
+        public Set<BookDto> getShelves() {
+            return shelves;
+        }
+
+        public void setShelves(Set<BookDto> shelves) {
+            this.shelves = shelves;
+        }
+
+        public List<String> getTitles() {
+            return titles;
+        }
+
+        public void setTitles(List<String> titles) {
+            this.titles = titles;
+        }
+    }
+}
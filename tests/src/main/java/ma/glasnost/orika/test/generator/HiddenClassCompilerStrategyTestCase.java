@@ -0,0 +1,157 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.HiddenClassCompilerStrategy;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Verifies that the HiddenClassCompilerStrategy maps as the default strategy
+ * does and, when the runtime supports it, that the generated classes are
+ * hidden classes which are unloaded along with their MapperFactory.<br>
+ * The tests of hidden classes are skipped on runtimes older than Java 15; the
+ * <code>hidden-classes</code> profile of this module runs them (alone) on
+ * Java 15 or later.
+ *
+ */
+public class HiddenClassCompilerStrategyTestCase {
+
+    @Test
+    public void testMapping() {
+        MapperFactory factory = mapperFactory();
+
+        Person person = new Person();
+        person.setName("Ada");
+        person.setAge(36);
+        PersonDto dto = factory.getMapperFacade().map(person, PersonDto.class);
+        Assert.assertEquals("Ada", dto.getName());
+        Assert.assertEquals(36, dto.getAge());
+
+        Person copy = factory.getMapperFacade().map(dto, Person.class);
+        Assert.assertEquals("Ada", copy.getName());
+        Assert.assertEquals(36, copy.getAge());
+    }
+
+    @Test
+    public void testMapperIsHidden() throws Exception {
+        Assume.assumeTrue(HiddenClassCompilerStrategy.isSupported());
+
+        Class<?> mapperClass = mapperClass(mapperFactory());
+        Assert.assertTrue((Boolean) Class.class.getMethod("isHidden").invoke(mapperClass));
+        Assert.assertSame(Person.class.getClassLoader(), mapperClass.getClassLoader());
+    }
+
+    @Test
+    public void testMapperIsHiddenWithSuppliedLookup() throws Exception {
+        Assume.assumeTrue(HiddenClassCompilerStrategy.isSupported());
+
+        Class<?> mapperClass = mapperClass(mapperFactory(new HiddenClassCompilerStrategy(MethodHandles.lookup())));
+        Assert.assertTrue((Boolean) Class.class.getMethod("isHidden").invoke(mapperClass));
+        Assert.assertEquals(Person.class.getPackage().getName(), mapperClass.getPackage().getName());
+    }
+
+    @Test
+    public void testMapperUnloaded() throws Exception {
+        Assume.assumeTrue(HiddenClassCompilerStrategy.isSupported());
+
+        /*
+         * System.gc() is only a hint, so collections are requested until the
+         * class is enqueued, within a generous deadline
+         */
+        ReferenceQueue<Class<?>> queue = new ReferenceQueue<Class<?>>();
+        WeakReference<Class<?>> mapperClass = new WeakReference<Class<?>>(mapperClass(mapperFactory()), queue);
+        Reference<?> unloaded = null;
+        long deadline = System.currentTimeMillis() + 30000;
+        while (unloaded == null && System.currentTimeMillis() < deadline) {
+            System.gc();
+            unloaded = queue.remove(100);
+        }
+        Assert.assertSame(mapperClass, unloaded);
+    }
+
+    private static MapperFactory mapperFactory() {
+        return mapperFactory(new HiddenClassCompilerStrategy());
+    }
+
+    private static MapperFactory mapperFactory(HiddenClassCompilerStrategy compilerStrategy) {
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        return factory;
+    }
+
+    private static Class<?> mapperClass(MapperFactory factory) {
+        Mapper<Object, Object> mapper = factory.lookupMapper(new MapperKey(TypeFactory.valueOf(Person.class),
+                TypeFactory.valueOf(PersonDto.class)));
+        return mapper.getClass();
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+    public static class PersonDto {
+        private String name;
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+}
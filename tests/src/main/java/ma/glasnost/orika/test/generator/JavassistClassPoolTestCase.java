@@ -0,0 +1,221 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.OrikaSystemProperties;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that the JavassistCompilerStrategy does not retain the classes it
+ * compiles in its class-pool, that it still compiles with a class-pool
+ * retaining very few classes, that the classes it retains are so bounded, and that a class-pool scoped to each build is
+ * created again for classes compiled afterwards.
+ *
+ */
+public class JavassistClassPoolTestCase {
+
+    @Test
+    public void testCompiledClassesDetached() {
+        RecordingCompilerStrategy compilerStrategy = new RecordingCompilerStrategy();
+        Team team = mapTeam(compilerStrategy);
+        Assert.assertEquals("Analytical", team.getName());
+
+        Assert.assertFalse(compilerStrategy.compiledClasses.isEmpty());
+        for (CtClass compiledClass : compilerStrategy.compiledClasses) {
+            Assert.assertNotSame(compiledClass, compilerStrategy.classPools.iterator().next().getOrNull(compiledClass.getName()));
+        }
+    }
+
+    @Test
+    public void testSmallClassPool() {
+        RecordingCompilerStrategy compilerStrategy = withProperty(OrikaSystemProperties.CLASS_POOL_SIZE, "2");
+        Team team = mapTeam(compilerStrategy);
+        Assert.assertEquals("Analytical", team.getName());
+        Assert.assertEquals("Ada", team.getMembers().get(0).getName());
+        Assert.assertEquals(1, compilerStrategy.classPools.size());
+    }
+
+    @Test
+    public void testClassPoolBounded() throws Exception {
+        RecordingCompilerStrategy compilerStrategy = withProperty(OrikaSystemProperties.CLASS_POOL_SIZE, "2");
+        mapTeam(compilerStrategy);
+
+        ClassPool classPool = compilerStrategy.classPools.iterator().next();
+        Field classes = ClassPool.class.getDeclaredField("classes");
+        classes.setAccessible(true);
+        /*
+         * The primitive types are cached by every class-pool
+         */
+        int primitiveTypes = ((Map<?, ?>) classes.get(new ClassPool())).size();
+        Assert.assertTrue(((Map<?, ?>) classes.get(classPool)).size() <= 2 + primitiveTypes);
+    }
+
+    @Test
+    public void testScopedClassPool() {
+        RecordingCompilerStrategy compilerStrategy = withProperty(OrikaSystemProperties.SCOPED_CLASS_POOL, "true");
+        Team team = mapTeam(compilerStrategy);
+        Assert.assertEquals("Ada", team.getMembers().get(0).getName());
+        Assert.assertEquals(1, compilerStrategy.classPools.size());
+
+        team = mapTeam(compilerStrategy);
+        Assert.assertEquals("Ada", team.getMembers().get(0).getName());
+        Assert.assertEquals(2, compilerStrategy.classPools.size());
+
+        /*
+         * Compiled after the build
+         */
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        factory.getMapperFacade();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        PersonDto dto = factory.getMapperFacade().map(person("Grace"), PersonDto.class);
+        Assert.assertEquals("Grace", dto.getName());
+        Assert.assertEquals(3, compilerStrategy.classPools.size());
+    }
+
+    private static RecordingCompilerStrategy withProperty(String name, String value) {
+        String previousValue = System.getProperty(name);
+        System.setProperty(name, value);
+        try {
+            return new RecordingCompilerStrategy();
+        } finally {
+            if (previousValue == null) {
+                System.clearProperty(name);
+            } else {
+                System.setProperty(name, previousValue);
+            }
+        }
+    }
+
+    private static Team mapTeam(JavassistCompilerStrategy compilerStrategy) {
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        factory.classMap(TeamDto.class, Team.class).byDefault().register();
+        factory.classMap(PersonDto.class, Person.class).byDefault().register();
+
+        TeamDto dto = new TeamDto();
+        dto.setName("Analytical");
+        dto.getMembers().add(factory.getMapperFacade().map(person("Ada"), PersonDto.class));
+        return factory.getMapperFacade().map(dto, Team.class);
+    }
+
+    private static Person person(String name) {
+        Person person = new Person();
+        person.setName(name);
+        return person;
+    }
+
+    public static class RecordingCompilerStrategy extends JavassistCompilerStrategy {
+        private final List<CtClass> compiledClasses = Collections.synchronizedList(new ArrayList<CtClass>());
+        private final Set<ClassPool> classPools = Collections.synchronizedSet(new HashSet<ClassPool>());
+
+        @Override
+        protected ClassPool prepareClassPool(SourceCodeContext sourceCode) {
+            ClassPool classPool = super.prepareClassPool(sourceCode);
+            classPools.add(classPool);
+            return classPool;
+        }
+
+        @Override
+        protected Class<?> defineClass(SourceCodeContext sourceCode, CtClass byteCodeClass) throws CannotCompileException {
+            compiledClasses.add(byteCodeClass);
+            return super.defineClass(sourceCode, byteCodeClass);
+        }
+    }
+
+    public static class Person {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class PersonDto {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Team {
+        private String name;
+        private List<Person> members = new ArrayList<Person>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<Person> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<Person> members) {
+            this.members = members;
+        }
+    }
+
+    public static class TeamDto {
+        private String name;
+        private List<PersonDto> members = new ArrayList<PersonDto>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<PersonDto> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<PersonDto> members) {
+            this.members = members;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.impl.ConfigurableMapper;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.impl.generator.MapperPrecompiler;
+import ma.glasnost.orika.impl.generator.PrecompiledCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Precompiles the mappers of a ConfigurableMapper with the MapperPrecompiler,
+ * then verifies that the PrecompiledCompilerStrategy loads them from the
+ * output directory instead of compiling them, and compiles only what was not
+ * precompiled.
+ *
+ */
+public class PrecompiledCompilerStrategyTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ClassLoader originalClassLoader;
+    private File outputDirectory;
+
+    @Before
+    public void precompile() throws IOException {
+        originalClassLoader = Thread.currentThread().getContextClassLoader();
+        outputDirectory = temporaryFolder.newFolder("classes");
+
+        /*
+         * Precompile within a throw-away class-loader, so that the classes
+         * compiled are not already loaded when it comes to loading them
+         */
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[0], originalClassLoader));
+        try {
+            MapperPrecompiler precompiler = new MapperPrecompiler(outputDirectory);
+            precompiler.precompile(PersonMapper.class);
+            precompiler.writeIndex();
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+        Assert.assertTrue(new File(outputDirectory, PrecompiledCompilerStrategy.PRECOMPILED_INDEX).isFile());
+        Assert.assertTrue(new File(outputDirectory, "ma/glasnost/orika/generated").isDirectory());
+
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[] { outputDirectory.toURI().toURL() },
+                originalClassLoader));
+    }
+
+    @After
+    public void restoreClassLoader() {
+        Thread.currentThread().setContextClassLoader(originalClassLoader);
+    }
+
+    @Test
+    public void testPrecompiledMapperLoaded() throws IOException {
+        CountingCompilerStrategy fallback = new CountingCompilerStrategy();
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(new PrecompiledCompilerStrategy(fallback)).build();
+        PersonMapper.registerClassMaps(factory);
+
+        Person person = new Person();
+        person.setName("Ada");
+        person.setAge(36);
+        PersonDto dto = factory.getMapperFacade().map(person, PersonDto.class);
+
+        Assert.assertEquals("Ada", dto.getFullName());
+        Assert.assertEquals(36, dto.getAge());
+        Assert.assertEquals(0, fallback.compiled.get());
+
+        Mapper<Object, Object> mapper = factory.lookupMapper(new MapperKey(TypeFactory.valueOf(Person.class),
+                TypeFactory.valueOf(PersonDto.class)));
+        Properties index = new Properties();
+        try (InputStream in = new FileInputStream(new File(outputDirectory, PrecompiledCompilerStrategy.PRECOMPILED_INDEX))) {
+            index.load(in);
+        }
+        Assert.assertTrue(index.toString(), index.containsValue(mapper.getClass().getName()));
+    }
+
+    @Test
+    public void testFallbackWhenNotPrecompiled() {
+        CountingCompilerStrategy fallback = new CountingCompilerStrategy();
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(new PrecompiledCompilerStrategy(fallback)).build();
+        factory.classMap(Person.class, PersonDto.class).field("name", "fullName").exclude("age").register();
+
+        Person person = new Person();
+        person.setName("Grace");
+        person.setAge(85);
+        PersonDto dto = factory.getMapperFacade().map(person, PersonDto.class);
+
+        Assert.assertEquals("Grace", dto.getFullName());
+        Assert.assertEquals(0, dto.getAge());
+        Assert.assertTrue(fallback.compiled.get() > 0);
+    }
+
+    @Test(expected = MappingException.class)
+    public void testMapperWithoutAutoInitConstructorRejected() {
+        new MapperPrecompiler(outputDirectory).precompile(SelfConfiguringMapper.class);
+    }
+
+    public static class SelfConfiguringMapper extends ConfigurableMapper {
+
+        @Override
+        protected void configure(MapperFactory factory) {
+            PersonMapper.registerClassMaps(factory);
+        }
+    }
+
+    public static class PersonMapper extends ConfigurableMapper {
+
+        public PersonMapper() {
+            super();
+        }
+
+        public PersonMapper(boolean autoInit) {
+            super(autoInit);
+        }
+
+        @Override
+        protected void configure(MapperFactory factory) {
+            registerClassMaps(factory);
+        }
+
+        static void registerClassMaps(MapperFactory factory) {
+            factory.classMap(Person.class, PersonDto.class).field("name", "fullName").byDefault().register();
+        }
+    }
+
+    public static class CountingCompilerStrategy extends JavassistCompilerStrategy {
+        private final AtomicInteger compiled = new AtomicInteger();
+
+        @Override
+        public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+            compiled.incrementAndGet();
+            return super.compileClass(sourceCode);
+        }
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+    public static class PersonDto {
+        private String fullName;
+        private int age;
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public void setFullName(String fullName) {
+            this.fullName = fullName;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+}
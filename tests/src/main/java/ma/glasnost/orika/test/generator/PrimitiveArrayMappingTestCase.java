@@ -0,0 +1,325 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import ma.glasnost.orika.CustomConverter;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.converter.builtin.CopyByReferenceConverter;
+import ma.glasnost.orika.converter.builtin.NumericConverters;
+import ma.glasnost.orika.converter.builtin.PassThroughConverter;
+import ma.glasnost.orika.converter.builtin.PrimitiveConversion;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that arrays of primitives are copied, widened or boxed directly
+ * into arrays and collections.
+ *
+ */
+public class PrimitiveArrayMappingTestCase {
+
+    @Test
+    public void testPrimitiveArrayToArray() {
+        MapperFacade mapper = mapper();
+        Source source = source();
+
+        Destination destination = mapper.map(source, Destination.class);
+        Assert.assertArrayEquals(source.getSame(), destination.getSame());
+        Assert.assertNotSame(source.getSame(), destination.getSame());
+        Assert.assertArrayEquals(new long[] { 1, Integer.MAX_VALUE }, destination.getWidened());
+        Assert.assertArrayEquals(new int[] { 'a', 'b' }, destination.getChars());
+        Assert.assertArrayEquals(new double[] { 0.5, 1.5 }, destination.getFloats(), 0);
+        Assert.assertArrayEquals(new Integer[] { 5, 6 }, destination.getWrappers());
+        Assert.assertArrayEquals(new Long[] { 7L }, destination.getWidenedWrappers());
+    }
+
+    @Test
+    public void testPrimitiveArrayToCollection() {
+        MapperFacade mapper = mapper();
+        Source source = source();
+
+        Destination destination = mapper.map(source, Destination.class);
+        Assert.assertEquals(Arrays.asList(8, 9), destination.getList());
+        Assert.assertEquals(new LinkedHashSet<Number>(Arrays.<Number> asList((short) 10)), destination.getNumbers());
+        Assert.assertEquals(Arrays.asList(11L), destination.getLongs());
+    }
+
+    @Test
+    public void testNullPrimitiveArrays() {
+        MapperFacade mapper = mapper();
+        Destination destination = mapper.map(source(), Destination.class);
+        mapper.map(new Source(), destination);
+        Assert.assertNull(destination.getSame());
+        Assert.assertNull(destination.getWidened());
+        Assert.assertNull(destination.getWrappers());
+        Assert.assertNull(destination.getList());
+        Assert.assertNull(destination.getNumbers());
+    }
+
+    @Test
+    public void testReverseMapping() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Source.class, Destination.class)
+                .fieldAToB("chars", "chars")
+                .fieldAToB("floats", "floats")
+                .fieldAToB("widenedWrappers", "widenedWrappers")
+                .fieldAToB("numbers", "numbers")
+                .byDefault()
+                .register();
+        MapperFacade mapper = factory.getMapperFacade();
+        Source source = source();
+
+        Source copy = mapper.map(mapper.map(source, Destination.class), Source.class);
+        Assert.assertArrayEquals(source.getSame(), copy.getSame());
+        Assert.assertArrayEquals(source.getWidened(), copy.getWidened());
+        Assert.assertArrayEquals(source.getWrappers(), copy.getWrappers());
+        Assert.assertArrayEquals(source.getList(), copy.getList());
+        Assert.assertArrayEquals(source.getLongs(), copy.getLongs());
+    }
+
+    @Test
+    public void testRegisteredElementConverter() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.getConverterFactory().registerConverter(new CustomConverter<Integer, Long>() {
+            public Long convert(Integer source, Type<? extends Long> destinationType, MappingContext mappingContext) {
+                return source * 10L;
+            }
+        });
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+        Source source = source();
+
+        Destination destination = factory.getMapperFacade().map(source, Destination.class);
+        Assert.assertArrayEquals(new long[] { 10, Integer.MAX_VALUE * 10L }, destination.getWidened());
+        Assert.assertArrayEquals(new int[] { 3, 4 }, destination.getSame());
+    }
+
+    @Test
+    public void testPrimitiveConversions() {
+        Type<Short> shortType = TypeFactory.valueOf(Short.class);
+        Type<Integer> integerType = TypeFactory.valueOf(Integer.class);
+        PrimitiveConversion integerToShort = new NumericConverters.IntegerToShortConverter(false);
+        Assert.assertTrue(integerToShort.isPrimitiveConversion(shortType, integerType));
+        Assert.assertTrue(integerToShort.isPrimitiveConversion(shortType, TypeFactory.valueOf(int.class)));
+        /*
+         * Narrowing, which may fail
+         */
+        Assert.assertFalse(integerToShort.isPrimitiveConversion(integerType, shortType));
+
+        Assert.assertTrue(new CopyByReferenceConverter().isPrimitiveConversion(integerType, integerType));
+        Assert.assertFalse(new PassThroughConverter(Integer.class).isPrimitiveConversion(shortType, shortType));
+    }
+
+    private static MapperFacade mapper() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+        return factory.getMapperFacade();
+    }
+
+    private static Source source() {
+        Source source = new Source();
+        source.setSame(new int[] { 3, 4 });
+        source.setWidened(new int[] { 1, Integer.MAX_VALUE });
+        source.setChars(new char[] { 'a', 'b' });
+        source.setFloats(new float[] { 0.5f, 1.5f });
+        source.setWrappers(new int[] { 5, 6 });
+        source.setWidenedWrappers(new short[] { 7 });
+        source.setList(new int[] { 8, 9 });
+        source.setNumbers(new short[] { 10 });
+        source.setLongs(new long[] { 11 });
+        return source;
+    }
+
+    public static class Source {
+        private int[] same;
+        private int[] widened;
+        private char[] chars;
+        private float[] floats;
+        private int[] wrappers;
+        private short[] widenedWrappers;
+        private int[] list;
+        private short[] numbers;
+        private long[] longs;
+
+        public int[] getSame() {
+            return same;
+        }
+
+        public void setSame(int[] same) {
+            this.same = same;
+        }
+
+        public int[] getWidened() {
+            return widened;
+        }
+
+        public void setWidened(int[] widened) {
+            this.widened = widened;
+        }
+
+        public char[] getChars() {
+            return chars;
+        }
+
+        public void setChars(char[] chars) {
+            this.chars = chars;
+        }
+
+        public float[] getFloats() {
+            return floats;
+        }
+
+        public void setFloats(float[] floats) {
+            this.floats = floats;
+        }
+
+        public int[] getWrappers() {
+            return wrappers;
+        }
+
+        public void setWrappers(int[] wrappers) {
+            this.wrappers = wrappers;
+        }
+
+        public short[] getWidenedWrappers() {
+            return widenedWrappers;
+        }
+
+        public void setWidenedWrappers(short[] widenedWrappers) {
+            this.widenedWrappers = widenedWrappers;
+        }
+
+        public int[] getList() {
+            return list;
+        }
+
+        public void setList(int[] list) {
+            this.list = list;
+        }
+
+        public short[] getNumbers() {
+            return numbers;
+        }
+
+        public void setNumbers(short[] numbers) {
+            this.numbers = numbers;
+        }
+
+        public long[] getLongs() {
+            return longs;
+        }
+
+        public void setLongs(long[] longs) {
+            this.longs = longs;
+        }
+    }
+
+    public static class Destination {
+        private int[] same;
+        private long[] widened;
+        private int[] chars;
+        private double[] floats;
+        private Integer[] wrappers;
+        private Long[] widenedWrappers;
+        private List<Integer> list;
+        private Set<Number> numbers;
+        private List<Long> longs;
+
+        public int[] getSame() {
+            return same;
+        }
+
+        public void setSame(int[] same) {
+            this.same = same;
+        }
+
+        public long[] getWidened() {
+            return widened;
+        }
+
+        public void setWidened(long[] widened) {
+            this.widened = widened;
+        }
+
+        public int[] getChars() {
+            return chars;
+        }
+
+        public void setChars(int[] chars) {
+            this.chars = chars;
+        }
+
+        public double[] getFloats() {
+            return floats;
+        }
+
+        public void setFloats(double[] floats) {
+            this.floats = floats;
+        }
+
+        public Integer[] getWrappers() {
+            return wrappers;
+        }
+
+        public void setWrappers(Integer[] wrappers) {
+            this.wrappers = wrappers;
+        }
+
+        public Long[] getWidenedWrappers() {
+            return widenedWrappers;
+        }
+
+        public void setWidenedWrappers(Long[] widenedWrappers) {
+            this.widenedWrappers = widenedWrappers;
+        }
+
+        public List<Integer> getList() {
+            return list;
+        }
+
+        public void setList(List<Integer> list) {
+            this.list = list;
+        }
+
+        public Set<Number> getNumbers() {
+            return numbers;
+        }
+
+        public void setNumbers(Set<Number> numbers) {
+            this.numbers = numbers;
+        }
+
+        public List<Long> getLongs() {
+            return longs;
+        }
+
+        public void setLongs(List<Long> longs) {
+            this.longs = longs;
+        }
+    }
+}
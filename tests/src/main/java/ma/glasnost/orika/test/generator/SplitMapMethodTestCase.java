@@ -0,0 +1,200 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that the map methods of generated mappers are split into helper
+ * methods beyond the configured size (and only when a size is configured),
+ * and that they map just the same.
+ *
+ */
+public class SplitMapMethodTestCase {
+
+    @Test
+    public void testMapMethodSplit() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().maxMapMethodSize(1).build();
+        factory.classMap(Order.class, OrderDto.class).field("customer.name", "customerName").byDefault().register();
+
+        Assert.assertFalse(helperMethods(factory).isEmpty());
+        for (Method helper : helperMethods(factory)) {
+            Assert.assertTrue(Modifier.isPrivate(helper.getModifiers()));
+        }
+        assertMapped(factory.getMapperFacade());
+    }
+
+    @Test
+    public void testMapMethodNotSplitByDefault() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Order.class, OrderDto.class).field("customer.name", "customerName").byDefault().register();
+
+        Assert.assertTrue(helperMethods(factory).isEmpty());
+        assertMapped(factory.getMapperFacade());
+    }
+
+    @Test
+    public void testMapMethodNotSplitBelowSize() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().maxMapMethodSize(2000).build();
+        factory.classMap(Order.class, OrderDto.class).field("customer.name", "customerName").byDefault().register();
+
+        Assert.assertTrue(helperMethods(factory).isEmpty());
+        assertMapped(factory.getMapperFacade());
+    }
+
+    private static void assertMapped(MapperFacade mapper) {
+        Order order = new Order();
+        order.setNumber(42);
+        order.setCreated(new Date(100L));
+        order.setCustomer(new Customer());
+        order.getCustomer().setName("Ada");
+        order.getLines().add("tea");
+
+        OrderDto dto = mapper.map(order, OrderDto.class);
+        Assert.assertEquals(42, dto.getNumber());
+        Assert.assertEquals(new Date(100L), dto.getCreated());
+        Assert.assertEquals("Ada", dto.getCustomerName());
+        Assert.assertEquals(order.getLines(), dto.getLines());
+
+        Order copy = mapper.map(dto, Order.class);
+        Assert.assertEquals(42, copy.getNumber());
+        Assert.assertEquals("Ada", copy.getCustomer().getName());
+        Assert.assertEquals(order.getLines(), copy.getLines());
+
+        order.setCustomer(null);
+        order.setCreated(null);
+        dto = mapper.map(order, OrderDto.class);
+        Assert.assertNull(dto.getCustomerName());
+        Assert.assertNull(dto.getCreated());
+    }
+
+    private static List<Method> helperMethods(MapperFactory factory) {
+        Class<?> mapperClass = factory.lookupMapper(new MapperKey(TypeFactory.valueOf(Order.class), TypeFactory.valueOf(OrderDto.class)))
+                .getClass();
+        List<Method> helpers = new ArrayList<Method>();
+        for (Method method : mapperClass.getDeclaredMethods()) {
+            if (method.getName().startsWith("mapAtoB_") || method.getName().startsWith("mapBtoA_")) {
+                helpers.add(method);
+            }
+        }
+        return helpers;
+    }
+
+    public static class Customer {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Order {
+        private int number;
+        private Date created;
+        private Customer customer;
+        private List<String> lines = new ArrayList<String>();
+
+        public int getNumber() {
+            return number;
+        }
+
+        public void setNumber(int number) {
+            this.number = number;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+
+        public void setCreated(Date created) {
+            this.created = created;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(Customer customer) {
+            this.customer = customer;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<String> lines) {
+            this.lines = lines;
+        }
+    }
+
+    public static class OrderDto {
+        private int number;
+        private Date created;
+        private String customerName;
+        private List<String> lines;
+
+        public int getNumber() {
+            return number;
+        }
+
+        public void setNumber(int number) {
+            this.number = number;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+
+        public void setCreated(Date created) {
+            this.created = created;
+        }
+
+        public String getCustomerName() {
+            return customerName;
+        }
+
+        public void setCustomerName(String customerName) {
+            this.customerName = customerName;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<String> lines) {
+            this.lines = lines;
+        }
+    }
+}
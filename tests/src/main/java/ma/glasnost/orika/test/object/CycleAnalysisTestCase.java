@@ -0,0 +1,217 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.object;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CycleAnalysisTestCase {
+
+    @Test
+    public void acyclicTypesAreDetected() {
+        DefaultMapperFactory factory = new DefaultMapperFactory.Builder().analyzeCycles(true).build();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        factory.classMap(Parent.class, ParentDto.class).byDefault().register();
+        factory.classMap(Child.class, ChildDto.class).byDefault().register();
+        factory.classMap(Holder.class, HolderDto.class).byDefault().register();
+
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Assert.assertTrue(factory.isAcyclic(TypeFactory.valueOf(Order.class)));
+        Assert.assertTrue(factory.isAcyclic(TypeFactory.valueOf(Line.class)));
+        Assert.assertTrue(factory.isAcyclic(TypeFactory.valueOf(LineDto.class)));
+        Assert.assertFalse(factory.isAcyclic(TypeFactory.valueOf(Parent.class)));
+        Assert.assertFalse(factory.isAcyclic(TypeFactory.valueOf(Child.class)));
+        Assert.assertFalse(factory.isAcyclic(TypeFactory.valueOf(Holder.class)));
+
+        StringBuilder state = new StringBuilder();
+        factory.reportCurrentState(state);
+        Assert.assertTrue(state.toString().contains("Acyclic types"));
+
+        Order order = new Order();
+        order.name = "order";
+        order.lines = new ArrayList<Line>();
+        for (int i = 0; i < 3; ++i) {
+            Line line = new Line();
+            line.quantity = i;
+            order.lines.add(line);
+        }
+        OrderDto orderDto = mapper.map(order, OrderDto.class);
+        Assert.assertEquals("order", orderDto.name);
+        Assert.assertEquals(3, orderDto.lines.size());
+        Assert.assertEquals(2, orderDto.lines.get(2).quantity);
+    }
+
+    @Test
+    public void cyclesArePreserved() {
+        DefaultMapperFactory factory = new DefaultMapperFactory.Builder().analyzeCycles(true).build();
+        factory.classMap(Parent.class, ParentDto.class).byDefault().register();
+        factory.classMap(Child.class, ChildDto.class).byDefault().register();
+
+        Parent parent = new Parent();
+        parent.child = new Child();
+        parent.child.parent = parent;
+
+        ParentDto dto = factory.getMapperFacade().map(parent, ParentDto.class);
+        Assert.assertSame(dto, dto.child.parent);
+    }
+
+    @Test
+    public void analysisFollowsGeneratedMappers() {
+        DefaultMapperFactory factory = new DefaultMapperFactory.Builder().analyzeCycles(true).build();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Assert.assertFalse(factory.isAcyclic(TypeFactory.valueOf(Order.class)));
+
+        Order order = new Order();
+        order.lines = new ArrayList<Line>();
+        order.lines.add(new Line());
+        mapper.map(order, OrderDto.class);
+
+        Assert.assertTrue(factory.isAcyclic(TypeFactory.valueOf(Order.class)));
+        Assert.assertTrue(factory.getAcyclicFlag(TypeFactory.valueOf(Order.class)).get());
+    }
+
+    @Test
+    public void laterClassMapsUpdateTheAnalysis() {
+        DefaultMapperFactory factory = new DefaultMapperFactory.Builder().analyzeCycles(true).build();
+        factory.classMap(Container.class, ContainerDto.class).byDefault().register();
+        factory.classMap(Circle.class, CircleDto.class).byDefault().register();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Assert.assertTrue(factory.isAcyclic(TypeFactory.valueOf(Container.class)));
+        Assert.assertTrue(factory.getAcyclicFlag(TypeFactory.valueOf(Container.class)).get());
+
+        factory.classMap(Square.class, SquareDto.class).byDefault().register();
+
+        Assert.assertFalse(factory.isAcyclic(TypeFactory.valueOf(Container.class)));
+        Assert.assertFalse(factory.isAcyclic(TypeFactory.valueOf(Square.class)));
+        Assert.assertFalse(factory.getAcyclicFlag(TypeFactory.valueOf(Container.class)).get());
+        Assert.assertTrue(factory.isAcyclic(TypeFactory.valueOf(Circle.class)));
+        Assert.assertTrue(factory.isAcyclic(TypeFactory.valueOf(Line.class)));
+
+        Container container = new Container();
+        Square square = new Square();
+        square.container = container;
+        container.shape = square;
+
+        ContainerDto dto = mapper.map(container, ContainerDto.class);
+        Assert.assertSame(dto, ((SquareDto) dto.shape).container);
+    }
+
+    @Test
+    public void analysisIsDisabledByDefault() {
+        DefaultMapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        factory.getMapperFacade();
+
+        Assert.assertFalse(factory.isAcyclic(TypeFactory.valueOf(Line.class)));
+    }
+
+    @Test
+    public void analysisCanBeDisabled() {
+        DefaultMapperFactory factory = new DefaultMapperFactory.Builder().analyzeCycles(false).build();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        factory.getMapperFacade();
+
+        Assert.assertFalse(factory.isAcyclic(TypeFactory.valueOf(Line.class)));
+    }
+
+    public static class Order {
+        public String name;
+        public List<Line> lines;
+    }
+
+    public static class OrderDto {
+        public String name;
+        public List<LineDto> lines;
+    }
+
+    public static class Line {
+        public int quantity;
+    }
+
+    public static class LineDto {
+        public int quantity;
+    }
+
+    public static class Parent {
+        public Child child;
+    }
+
+    public static class ParentDto {
+        public ChildDto child;
+    }
+
+    public static class Child {
+        public Parent parent;
+    }
+
+    public static class ChildDto {
+        public ParentDto parent;
+    }
+
+    public static class Container {
+        public Shape shape;
+    }
+
+    public static class ContainerDto {
+        public ShapeDto shape;
+    }
+
+    public static abstract class Shape {
+    }
+
+    public static abstract class ShapeDto {
+    }
+
+    public static class Circle extends Shape {
+        public int radius;
+    }
+
+    public static class CircleDto extends ShapeDto {
+        public int radius;
+    }
+
+    public static class Square extends Shape {
+        public Container container;
+    }
+
+    public static class SquareDto extends ShapeDto {
+        public ContainerDto container;
+    }
+
+    public static class Holder {
+        public Object value;
+    }
+
+    public static class HolderDto {
+        public Object value;
+    }
+}
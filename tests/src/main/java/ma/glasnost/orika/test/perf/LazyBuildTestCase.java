@@ -0,0 +1,267 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that a MapperFactory built with <code>lazyBuild(true)</code> does
+ * not compile any mapper on build, compiles each mapper only once it is used,
+ * and then maps just like one built eagerly, including the used mappers of
+ * class-maps which extend others.
+ *
+ */
+public class LazyBuildTestCase {
+
+    private static MapperFactory createFactory(boolean lazyBuild, CountingCompilerStrategy compilerStrategy) {
+        MapperFactory factory = new DefaultMapperFactory.Builder().lazyBuild(lazyBuild).compilerStrategy(compilerStrategy).build();
+        factory.classMap(Base.class, BaseDto.class).field("id", "identifier").byDefault().register();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Invoice.class, InvoiceDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).field("names{first}", "firstNames{}").byDefault().register();
+        return factory;
+    }
+
+    @Test
+    public void testMappersCompiledOnFirstUse() {
+        CountingCompilerStrategy compilerStrategy = new CountingCompilerStrategy();
+        MapperFacade lazy = createFactory(true, compilerStrategy).getMapperFacade();
+        Assert.assertEquals(0, compilerStrategy.compiledMappers().size());
+
+        Order order = new Order();
+        order.setId("1");
+        order.setName("order");
+        order.setTotal(42);
+        OrderDto orderDto = lazy.map(order, OrderDto.class);
+        Assert.assertEquals("1", orderDto.getIdentifier());
+        Assert.assertEquals("order", orderDto.getName());
+        Assert.assertEquals(42, orderDto.getTotal());
+
+        List<String> compiledMappers = compilerStrategy.compiledMappers();
+        Assert.assertEquals(2, compiledMappers.size());
+        Assert.assertTrue(compiledMappers.toString(), contains(compiledMappers, "Order"));
+        Assert.assertTrue(compiledMappers.toString(), contains(compiledMappers, "Base"));
+        Assert.assertFalse(compiledMappers.toString(), contains(compiledMappers, "Invoice"));
+
+        lazy.map(new OrderDto(), Order.class);
+        Assert.assertEquals(2, compilerStrategy.compiledMappers().size());
+    }
+
+    @Test
+    public void testLazyBuild() {
+        MapperFacade eager = createFactory(false, new CountingCompilerStrategy()).getMapperFacade();
+        MapperFacade lazy = createFactory(true, new CountingCompilerStrategy()).getMapperFacade();
+
+        Invoice invoice = new Invoice();
+        invoice.setId("2");
+        invoice.setNumber("INV-2");
+        InvoiceDto lazyInvoice = lazy.map(invoice, InvoiceDto.class);
+        Assert.assertEquals("2", lazyInvoice.getIdentifier());
+        Assert.assertEquals("INV-2", lazyInvoice.getNumber());
+
+        Customer customer = new Customer();
+        customer.setId("3");
+        customer.setNames(Arrays.asList(new Name("Ada"), new Name("Grace")));
+        CustomerDto eagerCustomer = eager.map(customer, CustomerDto.class);
+        CustomerDto lazyCustomer = lazy.map(customer, CustomerDto.class);
+        Assert.assertEquals(Arrays.asList("Ada", "Grace"), lazyCustomer.getFirstNames());
+        Assert.assertEquals(eagerCustomer.getFirstNames(), lazyCustomer.getFirstNames());
+        Assert.assertEquals("3", lazyCustomer.getIdentifier());
+
+        Customer reverse = lazy.map(lazyCustomer, Customer.class);
+        Assert.assertEquals("3", reverse.getId());
+        Assert.assertEquals("Grace", reverse.getNames().get(1).getFirst());
+    }
+
+    private static boolean contains(List<String> classNames, String typeName) {
+        for (String className : classNames) {
+            if (className.contains("_" + typeName + "_")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the names of the mappers it compiles.
+     */
+    public static class CountingCompilerStrategy extends JavassistCompilerStrategy {
+        private final List<String> compiled = new CopyOnWriteArrayList<String>();
+
+        @Override
+        public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+            compiled.add(sourceCode.getClassSimpleName());
+            return super.compileClass(sourceCode);
+        }
+
+        public List<String> compiledMappers() {
+            List<String> mappers = new ArrayList<String>();
+            for (String className : compiled) {
+                if (className.startsWith("Orika_") && className.contains("_Mapper")) {
+                    mappers.add(className);
+                }
+            }
+            return mappers;
+        }
+    }
+
+    public static class Base {
+        private String id;
+        private String name;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class BaseDto {
+        private String identifier;
+        private String name;
+
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        public void setIdentifier(String identifier) {
+            this.identifier = identifier;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Order extends Base {
+        private int total;
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+    }
+
+    public static class OrderDto extends BaseDto {
+        private int total;
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+    }
+
+    public static class Invoice extends Base {
+        private String number;
+
+        public String getNumber() {
+            return number;
+        }
+
+        public void setNumber(String number) {
+            this.number = number;
+        }
+    }
+
+    public static class InvoiceDto extends BaseDto {
+        private String number;
+
+        public String getNumber() {
+            return number;
+        }
+
+        public void setNumber(String number) {
+            this.number = number;
+        }
+    }
+
+    public static class Name {
+        private String first;
+
+        public Name() {
+        }
+
+        public Name(String first) {
+            this.first = first;
+        }
+
+        public String getFirst() {
+            return first;
+        }
+
+        public void setFirst(String first) {
+            this.first = first;
+        }
+    }
+
+    public static class Customer extends Base {
+        private List<Name> names;
+
+        public List<Name> getNames() {
+            return names;
+        }
+
+        public void setNames(List<Name> names) {
+            this.names = names;
+        }
+    }
+
+    public static class CustomerDto extends BaseDto {
+        private List<String> firstNames = new ArrayList<String>();
+
+        public List<String> getFirstNames() {
+            return firstNames;
+        }
+
+        public void setFirstNames(List<String> firstNames) {
+            this.firstNames = firstNames;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ma.glasnost.orika.DefaultFieldMapper;
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.ObjectFactory;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.test.ConcurrentRule;
+import ma.glasnost.orika.test.ConcurrentRule.Concurrent;
+import ma.glasnost.orika.test.MappingUtil;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Generates mappers and object factories from many threads at once, on a
+ * built factory: requests for the same types must share one generated
+ * instance, while requests for distinct types must each be wired to the
+ * mapper of their registered parent class-map.
+ *
+ */
+public class MapperGenerationConcurrencyTestCase {
+
+    private static final int THREADS = 16;
+
+    @Rule
+    public ConcurrentRule concurrentRule = new ConcurrentRule();
+
+    private final MapperFactory factory = createFactory();
+
+    private final CountDownLatch startLine = new CountDownLatch(THREADS);
+    private final AtomicInteger threadIndex = new AtomicInteger();
+    private final AtomicReference<Mapper<Object, Object>> sharedMapper = new AtomicReference<Mapper<Object, Object>>();
+    private final AtomicReference<ObjectFactory<Product>> sharedObjectFactory = new AtomicReference<ObjectFactory<Product>>();
+
+    private static MapperFactory createFactory() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.classMap(Base.class, BaseDto.class).field("id", "identifier").byDefault().register();
+        factory.getMapperFacade();
+        return factory;
+    }
+
+    @Test
+    @Concurrent(THREADS)
+    public void testSameTypesGeneratedOnce() throws InterruptedException {
+        startLine.countDown();
+        startLine.await();
+
+        Mapper<Object, Object> mapper = factory.lookupMapper(new MapperKey(TypeFactory.valueOf(Order.class),
+                TypeFactory.valueOf(OrderDto.class)));
+        Assert.assertNotNull(mapper);
+        if (!sharedMapper.compareAndSet(null, mapper)) {
+            Assert.assertSame(sharedMapper.get(), mapper);
+        }
+
+        ObjectFactory<Product> objectFactory = factory.lookupObjectFactory(TypeFactory.valueOf(Product.class),
+                TypeFactory.valueOf(Order.class));
+        Assert.assertNotNull(objectFactory);
+        if (!sharedObjectFactory.compareAndSet(null, objectFactory)) {
+            Assert.assertSame(sharedObjectFactory.get(), objectFactory);
+        }
+    }
+
+    @Test
+    @Concurrent(THREADS)
+    public void testDistinctTypesGeneratedInParallel() throws InterruptedException {
+        int index = threadIndex.getAndIncrement();
+        startLine.countDown();
+        startLine.await();
+
+        MapperFacade mapperFacade = factory.getMapperFacade();
+        Base source;
+        Class<? extends BaseDto> destinationClass;
+        switch (index % 4) {
+        case 0:
+            source = new Order();
+            destinationClass = OrderDto.class;
+            break;
+        case 1:
+            source = new Invoice();
+            destinationClass = InvoiceDto.class;
+            break;
+        case 2:
+            source = new Shipment();
+            destinationClass = ShipmentDto.class;
+            break;
+        default:
+            source = new Refund();
+            destinationClass = RefundDto.class;
+            break;
+        }
+        source.setId("id-" + index);
+        source.setName("name-" + index);
+
+        BaseDto result = mapperFacade.map(source, destinationClass);
+
+        Assert.assertEquals(destinationClass, result.getClass());
+        Assert.assertEquals("id-" + index, result.getIdentifier());
+        Assert.assertEquals("name-" + index, result.getName());
+    }
+
+    /**
+     * Two threads each generate a mapper whose generation looks up the mapper
+     * the other thread is generating; one of them must notice that waiting
+     * would deadlock and generate that mapper under the factory lock.
+     */
+    @Test(timeout = 30000)
+    public void testCrossLookupsDoNotDeadlock() throws Throwable {
+        final MapperFactory crossFactory = MappingUtil.getMapperFactory();
+        final MapperKey firstKey = new MapperKey(TypeFactory.valueOf(First.class), TypeFactory.valueOf(FirstDto.class));
+        final MapperKey secondKey = new MapperKey(TypeFactory.valueOf(Second.class), TypeFactory.valueOf(SecondDto.class));
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final AtomicBoolean firstLookedUp = new AtomicBoolean();
+        final AtomicBoolean secondLookedUp = new AtomicBoolean();
+        crossFactory.registerDefaultFieldMapper(new DefaultFieldMapper() {
+            public String suggestMappedField(String fromProperty, Type<?> fromPropertyType) {
+                try {
+                    if ("firstOnly".equals(fromProperty) && firstLookedUp.compareAndSet(false, true)) {
+                        barrier.await();
+                        crossFactory.lookupMapper(secondKey);
+                    } else if ("secondOnly".equals(fromProperty) && secondLookedUp.compareAndSet(false, true)) {
+                        barrier.await();
+                        crossFactory.lookupMapper(firstKey);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return null;
+            }
+        });
+        crossFactory.getMapperFacade();
+
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[2];
+        for (int i = 0; i < threads.length; ++i) {
+            final MapperKey key = i == 0 ? firstKey : secondKey;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        Assert.assertNotNull(crossFactory.lookupMapper(key));
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            };
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        First first = new First();
+        first.name = "first";
+        Assert.assertEquals("first", crossFactory.getMapperFacade().map(first, FirstDto.class).name);
+    }
+
+    public static class First {
+        public String name;
+        public String firstOnly;
+    }
+
+    public static class FirstDto {
+        public String name;
+    }
+
+    public static class Second {
+        public String name;
+        public String secondOnly;
+    }
+
+    public static class SecondDto {
+        public String name;
+    }
+
+    public static class Base {
+        private String id;
+        private String name;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class BaseDto {
+        private String identifier;
+        private String name;
+
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        public void setIdentifier(String identifier) {
+            this.identifier = identifier;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Order extends Base {
+    }
+
+    public static class OrderDto extends BaseDto {
+    }
+
+    public static class Invoice extends Base {
+    }
+
+    public static class InvoiceDto extends BaseDto {
+    }
+
+    public static class Shipment extends Base {
+    }
+
+    public static class ShipmentDto extends BaseDto {
+    }
+
+    public static class Refund extends Base {
+    }
+
+    public static class RefundDto extends BaseDto {
+    }
+
+    public static class Product {
+        private final String name;
+
+        public Product(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
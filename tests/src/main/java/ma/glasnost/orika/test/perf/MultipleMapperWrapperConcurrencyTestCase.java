@@ -0,0 +1,154 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.GeneratedMapperBase;
+import ma.glasnost.orika.impl.MultipleMapperWrapper;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.test.ConcurrentRule;
+import ma.glasnost.orika.test.ConcurrentRule.Concurrent;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Hammers a single MultipleMapperWrapper from many threads at once, over a
+ * mix of source and destination classes, checking that every call is
+ * dispatched to the right Mapper while the dispatch table is being filled.
+ * 
+ */
+public class MultipleMapperWrapperConcurrencyTestCase {
+    
+    private static final int ITERATIONS = 20000;
+    
+    @Rule
+    public ConcurrentRule concurrentRule = new ConcurrentRule();
+    
+    private final MultipleMapperWrapper wrapper = createWrapper();
+    
+    private final Object[][] pairs = {
+            { new A1(), new B1(), "1" },
+            { new A1Sub(), new B1(), "1" },
+            { new A1(), new B1Sub(), "1" },
+            { new A2(), new B2(), "2" },
+            { new A2Sub(), new B2Sub(), "2" },
+            { new A3(), new B3(), "3" },
+            { new A3Sub(), new B3(), "3" },
+            { new A4(), new B4(), "4" } };
+    
+    @Test
+    @Concurrent(16)
+    public void testConcurrentDispatch() {
+        Random random = new Random(Thread.currentThread().getId());
+        for (int i = 0; i < ITERATIONS; ++i) {
+            Object[] pair = pairs[random.nextInt(pairs.length)];
+            Base destination = (Base) pair[1];
+            String label = (String) pair[2];
+            if (random.nextBoolean()) {
+                wrapper.mapAtoB(pair[0], destination, null);
+                Assert.assertEquals("a->b " + label, destination.lastMappedBy.get());
+            } else {
+                wrapper.mapBtoA(destination, pair[0], null);
+                Assert.assertEquals("b->a " + label, ((Base) pair[0]).lastMappedBy.get());
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static MultipleMapperWrapper createWrapper() {
+        List<Mapper<Object, Object>> mappers = new ArrayList<Mapper<Object, Object>>();
+        mappers.add(new LabelMapper("1", A1.class, B1.class));
+        mappers.add(new LabelMapper("2", A2.class, B2.class));
+        mappers.add(new LabelMapper("3", A3.class, B3.class));
+        mappers.add(new LabelMapper("4", A4.class, B4.class));
+        return new MultipleMapperWrapper((Type<Object>) (Type<?>) TypeFactory.valueOf(Base.class),
+                (Type<Object>) (Type<?>) TypeFactory.valueOf(Base.class), mappers);
+    }
+    
+    private static class LabelMapper extends GeneratedMapperBase {
+        private final String label;
+        
+        @SuppressWarnings("unchecked")
+        LabelMapper(String label, Class<?> aType, Class<?> bType) {
+            this.label = label;
+            setAType((Type<Object>) (Type<?>) TypeFactory.valueOf(aType));
+            setBType((Type<Object>) (Type<?>) TypeFactory.valueOf(bType));
+        }
+        
+        @Override
+        public void mapAtoB(Object a, Object b, MappingContext context) {
+            ((Base) b).lastMappedBy.set("a->b " + label);
+        }
+        
+        @Override
+        public void mapBtoA(Object b, Object a, MappingContext context) {
+            ((Base) a).lastMappedBy.set("b->a " + label);
+        }
+    }
+    
+    public static class Base {
+        final ThreadLocal<String> lastMappedBy = new ThreadLocal<String>();
+    }
+    
+    public static class A1 extends Base {
+    }
+    
+    public static class A1Sub extends A1 {
+    }
+    
+    public static class B1 extends Base {
+    }
+    
+    public static class B1Sub extends B1 {
+    }
+    
+    public static class A2 extends Base {
+    }
+    
+    public static class A2Sub extends A2 {
+    }
+    
+    public static class B2 extends Base {
+    }
+    
+    public static class B2Sub extends B2 {
+    }
+    
+    public static class A3 extends Base {
+    }
+    
+    public static class A3Sub extends A3 {
+    }
+    
+    public static class B3 extends Base {
+    }
+    
+    public static class A4 extends Base {
+    }
+    
+    public static class B4 extends Base {
+    }
+}
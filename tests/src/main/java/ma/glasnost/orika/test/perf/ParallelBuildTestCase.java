@@ -0,0 +1,320 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that a MapperFactory built with <code>parallelBuild(true)</code>
+ * maps just like one built sequentially, including the used mappers of
+ * class-maps which extend others, and class-maps registered while generating
+ * mappers for element properties.
+ *
+ */
+public class ParallelBuildTestCase {
+
+    private static MapperFactory createFactory(boolean parallelBuild) {
+        return createFactory(new DefaultMapperFactory.Builder().parallelBuild(parallelBuild).build());
+    }
+
+    private static MapperFactory createFactory(MapperFactory factory) {
+        factory.classMap(Base.class, BaseDto.class).field("id", "identifier").byDefault().register();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Invoice.class, InvoiceDto.class).byDefault().register();
+        factory.classMap(Shipment.class, ShipmentDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).field("names{first}", "firstNames{}").byDefault().register();
+        return factory;
+    }
+
+    @Test
+    public void testParallelBuild() {
+        MapperFacade sequential = createFactory(false).getMapperFacade();
+        MapperFacade parallel = createFactory(true).getMapperFacade();
+
+        Order order = new Order();
+        order.setId("1");
+        order.setName("order");
+        order.setTotal(42);
+
+        OrderDto sequentialOrder = sequential.map(order, OrderDto.class);
+        OrderDto parallelOrder = parallel.map(order, OrderDto.class);
+        Assert.assertEquals("1", parallelOrder.getIdentifier());
+        Assert.assertEquals("order", parallelOrder.getName());
+        Assert.assertEquals(42, parallelOrder.getTotal());
+        Assert.assertEquals(sequentialOrder.getIdentifier(), parallelOrder.getIdentifier());
+
+        Invoice invoice = new Invoice();
+        invoice.setId("2");
+        invoice.setNumber("INV-2");
+        InvoiceDto parallelInvoice = parallel.map(invoice, InvoiceDto.class);
+        Assert.assertEquals("2", parallelInvoice.getIdentifier());
+        Assert.assertEquals("INV-2", parallelInvoice.getNumber());
+
+        Shipment shipment = parallel.map(new ShipmentDto(), Shipment.class);
+        Assert.assertNotNull(shipment);
+
+        Customer customer = new Customer();
+        customer.setId("3");
+        customer.setNames(Arrays.asList(new Name("Ada"), new Name("Grace")));
+        CustomerDto sequentialCustomer = sequential.map(customer, CustomerDto.class);
+        CustomerDto parallelCustomer = parallel.map(customer, CustomerDto.class);
+        Assert.assertEquals(Arrays.asList("Ada", "Grace"), parallelCustomer.getFirstNames());
+        Assert.assertEquals(sequentialCustomer.getFirstNames(), parallelCustomer.getFirstNames());
+        Assert.assertEquals("3", parallelCustomer.getIdentifier());
+    }
+
+    @Test
+    public void testParallelBuildOnSuppliedExecutor() {
+        final AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                threads.incrementAndGet();
+                return new Thread(runnable);
+            }
+        });
+        try {
+            MapperFacade parallel = createFactory(new DefaultMapperFactory.Builder().parallelBuild(true).parallelBuildExecutor(executor)
+                    .build()).getMapperFacade();
+            Assert.assertTrue(threads.get() > 0);
+            Assert.assertFalse(executor.isShutdown());
+
+            Order order = new Order();
+            order.setId("1");
+            order.setTotal(42);
+            OrderDto parallelOrder = parallel.map(order, OrderDto.class);
+            Assert.assertEquals("1", parallelOrder.getIdentifier());
+            Assert.assertEquals(42, parallelOrder.getTotal());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentBuildWaitsForParallelBuild() throws InterruptedException {
+        final CountDownLatch generating = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicBoolean released = new AtomicBoolean();
+        ExecutorService executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>()) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable runnable) {
+                generating.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    thread.interrupt();
+                }
+            }
+        };
+        try {
+            final MapperFactory factory = createFactory(new DefaultMapperFactory.Builder().parallelBuild(true)
+                    .parallelBuildExecutor(executor)
+                    .build());
+            Thread builder = new Thread() {
+                public void run() {
+                    factory.build();
+                }
+            };
+            final AtomicBoolean returnedAfterRelease = new AtomicBoolean();
+            Thread concurrentBuilder = new Thread() {
+                public void run() {
+                    factory.build();
+                    returnedAfterRelease.set(released.get());
+                }
+            };
+            
+            builder.start();
+            Assert.assertTrue(generating.await(10, TimeUnit.SECONDS));
+            concurrentBuilder.start();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (concurrentBuilder.getState() != Thread.State.WAITING && concurrentBuilder.isAlive()
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            
+            released.set(true);
+            release.countDown();
+            builder.join(10000);
+            concurrentBuilder.join(10000);
+            Assert.assertTrue("build() returned before the build in progress completed", returnedAfterRelease.get());
+            
+            Order order = new Order();
+            order.setId("1");
+            Assert.assertEquals("1", factory.getMapperFacade().map(order, OrderDto.class).getIdentifier());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    public static class Base {
+        private String id;
+        private String name;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class BaseDto {
+        private String identifier;
+        private String name;
+
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        public void setIdentifier(String identifier) {
+            this.identifier = identifier;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Order extends Base {
+        private int total;
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+    }
+
+    public static class OrderDto extends BaseDto {
+        private int total;
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+    }
+
+    public static class Invoice extends Base {
+        private String number;
+
+        public String getNumber() {
+            return number;
+        }
+
+        public void setNumber(String number) {
+            this.number = number;
+        }
+    }
+
+    public static class InvoiceDto extends BaseDto {
+        private String number;
+
+        public String getNumber() {
+            return number;
+        }
+
+        public void setNumber(String number) {
+            this.number = number;
+        }
+    }
+
+    public static class Shipment extends Base {
+    }
+
+    public static class ShipmentDto extends BaseDto {
+    }
+
+    public static class Name {
+        private String first;
+
+        public Name() {
+        }
+
+        public Name(String first) {
+            this.first = first;
+        }
+
+        public String getFirst() {
+            return first;
+        }
+
+        public void setFirst(String first) {
+            this.first = first;
+        }
+    }
+
+    public static class Customer extends Base {
+        private List<Name> names;
+
+        public List<Name> getNames() {
+            return names;
+        }
+
+        public void setNames(List<Name> names) {
+            this.names = names;
+        }
+    }
+
+    public static class CustomerDto extends BaseDto {
+        private List<String> firstNames = new ArrayList<String>();
+
+        public List<String> getFirstNames() {
+            return firstNames;
+        }
+
+        public void setFirstNames(List<String> firstNames) {
+            this.firstNames = firstNames;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import java.util.Arrays;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.NonCyclicMappingContext;
+import ma.glasnost.orika.impl.StripedMappingContextFactory;
+import ma.glasnost.orika.test.ConcurrentRule;
+import ma.glasnost.orika.test.ConcurrentRule.Concurrent;
+import ma.glasnost.orika.test.common.types.TestCaseClasses.AuthorImpl;
+import ma.glasnost.orika.test.common.types.TestCaseClasses.Book;
+import ma.glasnost.orika.test.common.types.TestCaseClasses.BookImpl;
+import ma.glasnost.orika.test.common.types.TestCaseClasses.Library;
+import ma.glasnost.orika.test.common.types.TestCaseClasses.LibraryDTO;
+import ma.glasnost.orika.test.common.types.TestCaseClasses.LibraryImpl;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class StripedMappingContextFactoryTestCase {
+    
+    @Rule
+    public ConcurrentRule concurrentRule = new ConcurrentRule();
+    
+    private final MapperFacade mapper = new DefaultMapperFactory.Builder()
+            .mappingContextFactory(new StripedMappingContextFactory(4, 2))
+            .build()
+            .getMapperFacade();
+    
+    @Test
+    public void testContextIsReusedByTheSameThread() {
+        StripedMappingContextFactory contextFactory = new StripedMappingContextFactory(4, 2);
+        
+        MappingContext context = contextFactory.getContext();
+        context.setProperty("key", "value");
+        contextFactory.release(context);
+        
+        MappingContext reused = contextFactory.getContext();
+        Assert.assertSame(context, reused);
+        Assert.assertNull(reused.getProperty("key"));
+        Assert.assertTrue(reused.containsCycle());
+    }
+    
+    @Test
+    public void testStripesAreBounded() {
+        StripedMappingContextFactory contextFactory = new StripedMappingContextFactory(1, 2);
+        
+        MappingContext first = contextFactory.getContext();
+        MappingContext second = contextFactory.getContext();
+        MappingContext third = contextFactory.getContext();
+        contextFactory.release(first);
+        contextFactory.release(second);
+        contextFactory.release(third);
+        
+        MappingContext[] pooled = { contextFactory.getContext(), contextFactory.getContext() };
+        Assert.assertTrue(Arrays.asList(pooled).contains(first));
+        Assert.assertTrue(Arrays.asList(pooled).contains(second));
+        Assert.assertNotSame(third, contextFactory.getContext());
+    }
+    
+    @Test
+    public void testNonCyclicContextsArePooledByStripe() {
+        StripedMappingContextFactory contextFactory = new StripedMappingContextFactory(2, 2);
+        MapperFactory factory = new DefaultMapperFactory.Builder().mappingContextFactory(contextFactory).build();
+        BoundMapperFacade<Library, LibraryDTO> boundMapper = factory.getMapperFacade(Library.class, LibraryDTO.class, false);
+        
+        Library lib = new LibraryImpl("The Library", Arrays.<Book> asList(new BookImpl("The Book Title", new AuthorImpl("The Author"))));
+        LibraryDTO mapped = boundMapper.map(lib);
+        Assert.assertEquals(lib.getTitle(), mapped.getTitle());
+        
+        MappingContext nonCyclicContext = contextFactory.nonCyclic().getContext();
+        Assert.assertTrue(nonCyclicContext instanceof NonCyclicMappingContext);
+        Assert.assertFalse(nonCyclicContext.containsCycle());
+        Assert.assertSame(contextFactory.getGlobalProperties(), contextFactory.nonCyclic().getGlobalProperties());
+    }
+    
+    @Test
+    @Concurrent(20)
+    public void testMapConcurrently() {
+        for (int i = 0; i < 200; ++i) {
+            BookImpl book = new BookImpl("Title " + i, new AuthorImpl("Author " + i));
+            Library lib = new LibraryImpl("Library " + i, Arrays.<Book> asList(book));
+            
+            LibraryDTO mappedLib = mapper.map(lib, LibraryDTO.class);
+            
+            Assert.assertEquals(lib.getTitle(), mappedLib.getTitle());
+            Assert.assertEquals(book.getTitle(), mappedLib.getBooks().get(0).getTitle());
+            Assert.assertEquals(book.getAuthor().getName(), mappedLib.getBooks().get(0).getAuthor().getName());
+            Assert.assertEquals(lib, mapper.map(mappedLib, Library.class));
+        }
+    }
+}
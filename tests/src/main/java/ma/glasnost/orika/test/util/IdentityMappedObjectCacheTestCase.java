@@ -0,0 +1,92 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.util;
+
+import ma.glasnost.orika.util.IdentityMappedObjectCache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IdentityMappedObjectCacheTestCase {
+    
+    @Test
+    public void keyedByIdentityAndType() {
+        IdentityMappedObjectCache cache = new IdentityMappedObjectCache();
+        String source = new String("key");
+        String equalSource = new String("key");
+        
+        cache.put(source, 1, "one");
+        cache.put(source, 2, "two");
+        
+        Assert.assertEquals("one", cache.get(source, 1));
+        Assert.assertEquals("two", cache.get(source, 2));
+        Assert.assertNull(cache.get(source, 3));
+        Assert.assertNull(cache.get(equalSource, 1));
+        
+        cache.put(source, 1, "uno");
+        Assert.assertEquals("uno", cache.get(source, 1));
+        Assert.assertEquals(2, cache.size());
+    }
+    
+    @Test
+    public void growsAndIsReusedAfterClear() {
+        IdentityMappedObjectCache cache = new IdentityMappedObjectCache();
+        Object[] sources = new Object[10000];
+        for (int i = 0; i < sources.length; ++i) {
+            sources[i] = new Object();
+            cache.put(sources[i], i % 3, Integer.valueOf(i));
+        }
+        Assert.assertEquals(sources.length, cache.size());
+        for (int i = 0; i < sources.length; ++i) {
+            Assert.assertEquals(Integer.valueOf(i), cache.get(sources[i], i % 3));
+        }
+        
+        int capacity = cache.capacity();
+        cache.clear();
+        Assert.assertTrue(cache.isEmpty());
+        Assert.assertEquals(capacity, cache.capacity());
+        for (int i = 0; i < sources.length; ++i) {
+            Assert.assertNull(cache.get(sources[i], i % 3));
+        }
+        
+        cache.put(sources[0], 0, "again");
+        Assert.assertEquals("again", cache.get(sources[0], 0));
+        Assert.assertEquals(1, cache.size());
+        cache.clear();
+        Assert.assertNull(cache.get(sources[0], 0));
+        for (int i = 0; i < sources.length; ++i) {
+            cache.put(sources[i], i % 3, Integer.valueOf(-i));
+        }
+        Assert.assertEquals(capacity, cache.capacity());
+        for (int i = 0; i < sources.length; ++i) {
+            Assert.assertEquals(Integer.valueOf(-i), cache.get(sources[i], i % 3));
+        }
+    }
+    
+    @Test
+    public void oversizedTableIsReleasedOnClear() {
+        IdentityMappedObjectCache cache = new IdentityMappedObjectCache();
+        for (int i = 0; i <= IdentityMappedObjectCache.MAX_RETAINED_CAPACITY / 2; ++i) {
+            cache.put(new Object(), 0, null);
+        }
+        Assert.assertTrue(cache.capacity() > IdentityMappedObjectCache.MAX_RETAINED_CAPACITY);
+        cache.clear();
+        Assert.assertTrue(cache.capacity() <= IdentityMappedObjectCache.MAX_RETAINED_CAPACITY);
+    }
+}